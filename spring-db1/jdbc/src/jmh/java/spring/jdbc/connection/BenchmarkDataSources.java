@@ -0,0 +1,74 @@
+package spring.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static spring.jdbc.connection.ConnectionConst.*;
+
+/**
+ * 벤치마크용 메모리 H2 DataSource
+ * - driverManager : DriverManagerDataSource, 매번 새 커넥션 (V0 의 DriverManager 와 같은 비용)
+ * - hikari : HikariDataSource, 풀에서 커넥션 재사용
+ * - DB_CLOSE_DELAY=-1 : 마지막 커넥션을 닫아도 DB(테이블)가 유지되도록
+ * - OPTIMIZE_REUSE_RESULTS=0 : 같은 조회 결과 재사용을 꺼서 매번 실제로 실행되도록
+ * - TCP_URL : H2 서버(localhost)에 띄운 메모리 DB, 문장 실행/커밋마다 서버 왕복 (H2 서버 실행 필요)
+ */
+public abstract class BenchmarkDataSources {
+
+    public static final String URL = "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=0";
+    public static final String TCP_URL = "jdbc:h2:tcp://localhost/mem:bench;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=0";
+
+    public static DataSource create(String type) {
+        return create(type, URL);
+    }
+
+    public static DataSource create(String type, String url) {
+        if (type.equals("driverManager")) {
+            return new DriverManagerDataSource(url, USERNAME, PASSWORD);
+        }
+        if (type.equals("hikari")) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(url);
+            dataSource.setUsername(USERNAME);
+            dataSource.setPassword(PASSWORD);
+            dataSource.setMaximumPoolSize(10);
+            dataSource.setPoolName("BenchmarkPool");
+            dataSource.setExceptionOverrideClassName(LockTimeoutExceptionOverride.class.getName());
+            return dataSource;
+        }
+        throw new IllegalArgumentException("unknown dataSource type=" + type);
+    }
+
+    public static void close(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            ((HikariDataSource) dataSource).close();
+        }
+    }
+
+    /**
+     * member 테이블을 새로 만들고 memberCount 건 저장 (member0 ~ member{n-1})
+     */
+    public static void createMemberTable(DataSource dataSource, int memberCount) throws SQLException {
+        try (Connection con = dataSource.getConnection(); Statement stmt = con.createStatement()) {
+            stmt.execute("drop table if exists member");
+            stmt.execute("create table member (member_id varchar(20), money integer not null default 0, version bigint default 0 not null, primary key (member_id))");
+            for (int i = 0; i < memberCount; i++) {
+                stmt.execute("insert into member(member_id, money) values('member" + i + "', 10000)");
+            }
+        }
+    }
+
+    /**
+     * save 벤치마크로 추가된 회원(save 로 시작하는 id) 삭제
+     */
+    public static void deleteSavedMembers(DataSource dataSource) throws SQLException {
+        try (Connection con = dataSource.getConnection(); Statement stmt = con.createStatement()) {
+            stmt.execute("delete from member where member_id like 'save%'");
+        }
+    }
+}
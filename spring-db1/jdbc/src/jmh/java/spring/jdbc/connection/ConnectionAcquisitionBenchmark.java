@@ -0,0 +1,68 @@
+package spring.jdbc.connection;
+
+import org.openjdk.jmh.annotations.*;
+import spring.jdbc.domain.Member;
+import spring.jdbc.repository.MemberRepositoryV2;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커넥션 획득 비용과 SQL 실행 비용 분리
+ * - getConnection : 커넥션 획득 + 반환(close)만
+ * - findByIdWithAcquisition : 매번 커넥션 획득 후 조회 (MemberRepositoryV2.findById(memberId))
+ * - findByIdOnHeldConnection : 미리 획득한 커넥션으로 조회만 (MemberRepositoryV2.findById(con, memberId))
+ * findByIdWithAcquisition - findByIdOnHeldConnection = 조회 1번에 붙는 커넥션 획득 비용
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ConnectionAcquisitionBenchmark {
+
+    static final int MEMBER_COUNT = 1000;
+
+    @Param({"driverManager", "hikari"})
+    String dataSource;
+
+    DataSource ds;
+    MemberRepositoryV2 memberRepository;
+    Connection heldConnection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        ds = BenchmarkDataSources.create(dataSource);
+        BenchmarkDataSources.createMemberTable(ds, MEMBER_COUNT);
+        memberRepository = new MemberRepositoryV2(ds);
+        heldConnection = ds.getConnection();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        heldConnection.close();
+        BenchmarkDataSources.close(ds);
+    }
+
+    @Benchmark
+    public boolean getConnection() throws SQLException {
+        try (Connection con = ds.getConnection()) {
+            return con.getAutoCommit();  //획득한 커넥션을 한 번은 사용
+        }
+    }
+
+    @Benchmark
+    public Member findByIdWithAcquisition() throws SQLException {
+        return memberRepository.findById(randomMemberId());
+    }
+
+    @Benchmark
+    public Member findByIdOnHeldConnection() throws SQLException {
+        return memberRepository.findById(heldConnection, randomMemberId());
+    }
+
+    private String randomMemberId() {
+        return "member" + ThreadLocalRandom.current().nextInt(MEMBER_COUNT);
+    }
+}
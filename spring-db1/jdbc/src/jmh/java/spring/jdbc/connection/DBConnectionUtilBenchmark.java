@@ -0,0 +1,69 @@
+package spring.jdbc.connection;
+
+import org.openjdk.jmh.annotations.*;
+import spring.jdbc.domain.Member;
+import spring.jdbc.repository.MemberRepositoryV0;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DBConnectionUtil 커넥션 풀 적용 전/후 (메모리 H2)
+ * - pool=false : 호출마다 DriverManager 로 새 커넥션 (적용 전)
+ * - pool=true : Hikari 풀에서 꺼내고 반환 (적용 후)
+ * - MemberRepositoryV0 는 쿼리마다 DBConnectionUtil.getConnection() 을 호출하므로 차이가 그대로 반영됨
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DBConnectionUtilBenchmark {
+
+    static final int MEMBER_COUNT = 1000;
+
+    @Param({"false", "true"})
+    String pool;
+
+    DataSource ds;
+    MemberRepositoryV0 memberRepository = new MemberRepositoryV0();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        System.setProperty("db.url", BenchmarkDataSources.URL);
+        System.setProperty("db.pool", pool);
+        ds = BenchmarkDataSources.create("driverManager");
+        BenchmarkDataSources.createMemberTable(ds, MEMBER_COUNT);
+        if (Boolean.parseBoolean(pool)) {
+            DBConnectionUtil.warmUp();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DBConnectionUtil.close();
+        System.clearProperty("db.pool");
+    }
+
+    @Benchmark
+    public boolean getConnection() throws SQLException {
+        try (Connection con = DBConnectionUtil.getConnection()) {
+            return con.getAutoCommit();
+        }
+    }
+
+    @Benchmark
+    public Member findById() throws SQLException {
+        return memberRepository.findById(randomMemberId());
+    }
+
+    @Benchmark
+    public void update() throws SQLException {
+        memberRepository.update(randomMemberId(), ThreadLocalRandom.current().nextInt(10000));
+    }
+
+    private String randomMemberId() {
+        return "member" + ThreadLocalRandom.current().nextInt(MEMBER_COUNT);
+    }
+}
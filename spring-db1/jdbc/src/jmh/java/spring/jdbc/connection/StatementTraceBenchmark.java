@@ -0,0 +1,59 @@
+package spring.jdbc.connection;
+
+import org.openjdk.jmh.annotations.*;
+import spring.jdbc.domain.Member;
+import spring.jdbc.repository.MemberRepository;
+import spring.jdbc.repository.MemberRepositoryV4_1;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StatementTracer 비용 (메모리 H2, Hikari 풀)
+ * - none : 풀을 그대로 사용
+ * - 0 : StatementTraceDataSource 를 거치지만 꺼져 있음 (커넥션을 감싸지 않음)
+ * - 0.01, 1 : 샘플링 비율, 기록은 아무것도 하지 않는 sink 로 (로그 출력 비용 제외, 프록시/시간 측정 비용만)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class StatementTraceBenchmark {
+
+    static final int MEMBER_COUNT = 1000;
+
+    @Param({"none", "0", "0.01", "1"})
+    String trace;
+
+    DataSource pool;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = BenchmarkDataSources.create("hikari");
+        BenchmarkDataSources.createMemberTable(pool, MEMBER_COUNT);
+        DataSource ds = trace.equals("none") ? pool
+                : new StatementTraceDataSource(pool, new StatementTracer(Double.parseDouble(trace), t -> {}));
+        memberRepository = new MemberRepositoryV4_1(ds);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDataSources.close(pool);
+    }
+
+    @Benchmark
+    public Member findById() {
+        return memberRepository.findById(randomMemberId());
+    }
+
+    @Benchmark
+    public void update() {
+        memberRepository.update(randomMemberId(), ThreadLocalRandom.current().nextInt(10000));
+    }
+
+    private String randomMemberId() {
+        return "member" + ThreadLocalRandom.current().nextInt(MEMBER_COUNT);
+    }
+}
@@ -0,0 +1,200 @@
+package spring.jdbc.repository;
+
+import org.openjdk.jmh.annotations.*;
+import spring.jdbc.connection.BenchmarkDataSources;
+import spring.jdbc.connection.DBConnectionUtil;
+import spring.jdbc.domain.Member;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberRepository V0 ~ V5 의 save / findById / update / delete 비용 비교 (메모리 H2)
+ * - dataSource : driverManager(매번 새 커넥션) / hikari(커넥션 풀)
+ * - V0 은 DataSource 대신 DBConnectionUtil(커넥션 풀)을 사용하므로 dataSource 값과 관계없이 같은 경로
+ *   (DBConnectionUtil 이 메모리 DB 에 접속하도록 db.url 시스템 프로퍼티 설정, 풀 적용 전/후는 DBConnectionUtilBenchmark)
+ * - 커넥션 획득 비용만 따로 보려면 ConnectionAcquisitionBenchmark
+ * - 할당량은 gc 프로파일러의 gc.alloc.rate.norm (B/op)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MemberRepositoryBenchmark {
+
+    static final int MEMBER_COUNT = 1000;
+
+    @Param({"V0", "V1", "V2", "V3", "V4_1", "V4_2", "V5"})
+    String repository;
+
+    @Param({"driverManager", "hikari"})
+    String dataSource;
+
+    DataSource ds;
+    MemberRepository memberRepository;
+    long saveSequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        System.setProperty("db.url", BenchmarkDataSources.URL);
+        ds = BenchmarkDataSources.create(dataSource);
+        BenchmarkDataSources.createMemberTable(ds, MEMBER_COUNT);
+        memberRepository = create(repository, ds);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteSavedMembers() throws SQLException {
+        BenchmarkDataSources.deleteSavedMembers(ds);  //save 로 늘어난 행 정리
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDataSources.close(ds);
+        DBConnectionUtil.close();
+    }
+
+    @Benchmark
+    public Member save() {
+        return memberRepository.save(new Member("save" + saveSequence++, 10000));
+    }
+
+    @Benchmark
+    public Member findById() {
+        return memberRepository.findById(randomMemberId());
+    }
+
+    @Benchmark
+    public void update() {
+        memberRepository.update(randomMemberId(), ThreadLocalRandom.current().nextInt(10000));
+    }
+
+    /**
+     * 삭제할 행이 계속 있어야 하므로 저장 후 삭제 (delete 비용 = 이 값 - save)
+     */
+    @Benchmark
+    public void saveAndDelete() {
+        String memberId = "save" + saveSequence++;
+        memberRepository.save(new Member(memberId, 10000));
+        memberRepository.delete(memberId);
+    }
+
+    private String randomMemberId() {
+        return "member" + ThreadLocalRandom.current().nextInt(MEMBER_COUNT);
+    }
+
+    /**
+     * V0 ~ V3 은 MemberRepository 를 구현하지 않고 SQLException 을 던지므로 감싸서 같은 인터페이스로 사용
+     * (감싸는 부분에서 할당이 생기지 않도록 람다 대신 메서드 참조만 보관)
+     */
+    static MemberRepository create(String repository, DataSource dataSource) {
+        switch (repository) {
+            case "V0":
+                MemberRepositoryV0 v0 = new MemberRepositoryV0();
+                return new SqlMemberRepository(v0::save, v0::findById, v0::update, v0::delete);
+            case "V1":
+                MemberRepositoryV1 v1 = new MemberRepositoryV1(dataSource);
+                return new SqlMemberRepository(v1::save, v1::findById, v1::update, v1::delete);
+            case "V2":
+                MemberRepositoryV2 v2 = new MemberRepositoryV2(dataSource);
+                return new SqlMemberRepository(v2::save, v2::findById, v2::update, v2::delete);
+            case "V3":
+                MemberRepositoryV3 v3 = new MemberRepositoryV3(dataSource);
+                return new SqlMemberRepository(v3::save, v3::findById, v3::update, v3::delete);
+            case "V4_1":
+                return new MemberRepositoryV4_1(dataSource);
+            case "V4_2":
+                return new MemberRepositoryV4_2(dataSource);
+            case "V5":
+                return new MemberRepositoryV5(dataSource);
+            default:
+                throw new IllegalArgumentException("unknown repository=" + repository);
+        }
+    }
+
+    interface SqlFunction<T, R> {
+        R apply(T t) throws SQLException;
+    }
+
+    interface SqlUpdate {
+        void update(String memberId, int money) throws SQLException;
+    }
+
+    interface SqlDelete {
+        void delete(String memberId) throws SQLException;
+    }
+
+    static class SqlMemberRepository implements MemberRepository {
+
+        private final SqlFunction<Member, Member> save;
+        private final SqlFunction<String, Member> findById;
+        private final SqlUpdate update;
+        private final SqlDelete delete;
+
+        SqlMemberRepository(SqlFunction<Member, Member> save, SqlFunction<String, Member> findById,
+                            SqlUpdate update, SqlDelete delete) {
+            this.save = save;
+            this.findById = findById;
+            this.update = update;
+            this.delete = delete;
+        }
+
+        @Override
+        public Member save(Member member) {
+            try {
+                return save.apply(member);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public Member findById(String memberId) {
+            try {
+                return findById.apply(memberId);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void update(String memberId, int money) {
+            try {
+                update.update(memberId, money);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void delete(String memberId) {
+            try {
+                delete.delete(memberId);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public Member findByIdForUpdate(String memberId) {
+            throw new UnsupportedOperationException("V0 ~ V3 에는 없는 기능");
+        }
+
+        @Override
+        public boolean addMoney(String memberId, int delta) {
+            throw new UnsupportedOperationException("V0 ~ V3 에는 없는 기능");
+        }
+
+        @Override
+        public List<Member> findAllByIdForUpdate(Collection<String> memberIds) {
+            throw new UnsupportedOperationException("V0 ~ V3 에는 없는 기능");
+        }
+
+        @Override
+        public void updateAll(List<Member> members) {
+            throw new UnsupportedOperationException("V0 ~ V3 에는 없는 기능");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package spring.jdbc.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import spring.jdbc.connection.BenchmarkDataSources;
+import spring.jdbc.connection.StatementCachingDataSource;
+import spring.jdbc.domain.Member;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static spring.jdbc.connection.ConnectionConst.*;
+
+/**
+ * PreparedStatement 캐시 사용/미사용 비교 (H2, Hikari 풀)
+ * - cache=true : Hikari -> StatementCachingDataSource -> DriverManagerDataSource
+ * - cache=false : Hikari -> DriverManagerDataSource
+ * - 커넥션 획득 비용은 풀로 같으므로 차이는 prepareStatement 비용
+ * - db=mem : 임베디드 H2, 세션마다 파싱 결과를 캐시(QUERY_CACHE_SIZE)하므로 차이가 거의 없음
+ * - db=tcp : H2 서버(localhost)에 띄운 메모리 DB, prepare 할 때마다 서버 왕복이 있어서 캐시 효과가 드러남
+ *   (H2 서버 실행 필요, ~/test 의 member 테이블은 건드리지 않음)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class StatementCacheBenchmark {
+
+    static final int MEMBER_COUNT = 1000;
+
+    @Param({"V1", "V3", "V4_2"})
+    String repository;
+
+    @Param({"false", "true"})
+    String cache;
+
+    @Param({"mem", "tcp"})
+    String db;
+
+    HikariDataSource ds;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = db.equals("tcp") ? BenchmarkDataSources.TCP_URL : BenchmarkDataSources.URL;
+        DriverManagerDataSource target = new DriverManagerDataSource(url, USERNAME, PASSWORD);
+        ds = new HikariDataSource();
+        ds.setDataSource(Boolean.parseBoolean(cache) ? new StatementCachingDataSource(target) : target);
+        ds.setMaximumPoolSize(10);
+        ds.setPoolName("StatementCacheBenchmarkPool");
+        BenchmarkDataSources.createMemberTable(ds, MEMBER_COUNT);
+        memberRepository = MemberRepositoryBenchmark.create(repository, ds);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ds.close();
+    }
+
+    @Benchmark
+    public Member findById() {
+        return memberRepository.findById(randomMemberId());
+    }
+
+    @Benchmark
+    public void update() {
+        memberRepository.update(randomMemberId(), ThreadLocalRandom.current().nextInt(10000));
+    }
+
+    private String randomMemberId() {
+        return "member" + ThreadLocalRandom.current().nextInt(MEMBER_COUNT);
+    }
+}
@@ -0,0 +1,74 @@
+package spring.jdbc.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.jdbc.connection.BenchmarkDataSources;
+import spring.jdbc.repository.MemberRepositoryV5;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스트라이프 락(AccountLockManager) + atomic 이체 - 스트라이프 수 x 경합
+ * - stripes=0 : JVM 락 없이 accountTransferAtomic 만 (DB 행 잠금으로만 줄 세움)
+ * - stripes=1 : 모든 이체가 락 하나 (JVM 전체 직렬화)
+ * - stripes=4, 16, 64 : 서로 다른 스트라이프의 이체는 병렬
+ * - accounts : 이체 대상 회원 수, 8 = 높은 경합, 1000 = 낮은 경합
+ * - 8 스레드, 락은 트랜잭션 밖에서 잡고 커밋 후 해제
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+public class AccountLockBenchmark {
+
+    @Param({"0", "1", "4", "16", "64"})
+    int stripes;
+
+    @Param({"8", "1000"})
+    int accounts;
+
+    DataSource ds;
+    MemberServiceV4 memberService;
+    TransactionTemplate txTemplate;
+    AccountLockManager lockManager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        ds = BenchmarkDataSources.create("hikari");
+        BenchmarkDataSources.createMemberTable(ds, accounts);
+        memberService = new MemberServiceV4(new MemberRepositoryV5(ds));
+        txTemplate = new TransactionTemplate(new DataSourceTransactionManager(ds));
+        lockManager = stripes == 0 ? null : new AccountLockManager(stripes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (lockManager != null) {
+            System.out.println("contended=" + lockManager.getContendedCount());
+        }
+        BenchmarkDataSources.close(ds);
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+        String fromId = "member" + from;
+        String toId = "member" + to;
+
+        if (lockManager == null) {
+            transferAtomic(fromId, toId);
+        } else {
+            lockManager.executeWithoutResult(fromId, toId, () -> transferAtomic(fromId, toId));
+        }
+    }
+
+    private void transferAtomic(String fromId, String toId) {
+        txTemplate.executeWithoutResult(status -> memberService.accountTransferAtomic(fromId, toId, 1));
+    }
+}
@@ -0,0 +1,77 @@
+package spring.jdbc.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.jdbc.connection.BenchmarkDataSources;
+import spring.jdbc.repository.MemberRepositoryV5;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시 이체 경합: 낙관적 락(version + 재시도) vs 비관적 락(select ... for update)
+ * - optimistic : accountTransfer (조회 -> version 조건 수정), 충돌하면 ConcurrencyRetryTemplate 으로 재시도
+ * - pessimistic : accountTransferWithLock (member_id 순서로 for update 잠금 후 수정, 잠금 대기 시간 LOCK_TIMEOUT)
+ *   잠금 대기 시간을 넘으면(CannotAcquireLockException) 같은 재시도 템플릿으로 다시 실행
+ * - accounts : 이체 대상 회원 수(K), 2 = 모든 이체가 같은 두 행 ... 1000 = 거의 겹치지 않음
+ * - 8 스레드(N)가 임의의 두 회원 사이에서 동시에 이체, 스레드 수는 -t 옵션으로 바꿀 수 있음
+ * - Throughput : 처리량 (ops/ms), SampleTime : 지연 분포 (p0.99 = p99, 재시도/잠금 대기 시간 포함)
+ * - 스프링 컨테이너 없이 TransactionTemplate 으로 트랜잭션 적용
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+public class TransferLockingBenchmark {
+
+    static final Duration LOCK_TIMEOUT = Duration.ofSeconds(1);
+
+    @Param({"optimistic", "pessimistic"})
+    String locking;
+
+    @Param({"2", "8", "64", "1000"})
+    int accounts;
+
+    DataSource ds;
+    MemberServiceV4 memberService;
+    TransactionTemplate txTemplate;
+    ConcurrencyRetryTemplate retryTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        ds = BenchmarkDataSources.create("hikari");
+        BenchmarkDataSources.createMemberTable(ds, accounts);
+        MemberRepositoryV5 memberRepository = new MemberRepositoryV5(ds, true);
+        memberRepository.setLockTimeout(LOCK_TIMEOUT);
+        memberService = new MemberServiceV4(memberRepository);
+        txTemplate = new TransactionTemplate(new DataSourceTransactionManager(ds));
+        retryTemplate = new ConcurrencyRetryTemplate(100, 1, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("retries=" + retryTemplate.getRetryCount());
+        BenchmarkDataSources.close(ds);
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+        String fromId = "member" + from;
+        String toId = "member" + to;
+
+        if (locking.equals("optimistic")) {
+            retryTemplate.executeWithoutResult(() ->
+                    txTemplate.executeWithoutResult(status -> memberService.accountTransfer(fromId, toId, 1)));
+        } else {
+            retryTemplate.executeWithoutResult(() ->
+                    txTemplate.executeWithoutResult(status -> memberService.accountTransferWithLock(fromId, toId, 1)));
+        }
+    }
+}
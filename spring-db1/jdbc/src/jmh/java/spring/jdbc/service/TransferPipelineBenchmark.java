@@ -0,0 +1,79 @@
+package spring.jdbc.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.jdbc.connection.BenchmarkDataSources;
+import spring.jdbc.domain.Transfer;
+import spring.jdbc.repository.MemberRepositoryV5;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 그룹 커밋(TransferPipeline) vs 이체마다 커밋
+ * - batchSize=0 : 호출 스레드에서 accountTransferAtomic, 이체마다 트랜잭션 커밋
+ * - batchSize=8, 64 : TransferPipeline 에 submit 하고 완료될 때까지 대기 (최대 대기 MAX_WAIT_MILLIS)
+ * - 32 스레드가 동시에 이체 -> 한 번에 모일 수 있는 이체는 최대 32 건
+ * - Throughput : 처리량, SampleTime : 호출자가 기다린 시간 (그룹 커밋은 모으는 시간만큼 늘어남)
+ * - db=mem : 임베디드 H2, 커밋 비용이 작음 / db=tcp : H2 서버, 커밋마다 서버 왕복 (H2 서버 실행 필요)
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(32)
+public class TransferPipelineBenchmark {
+
+    static final int ACCOUNTS = 1000;
+    static final long MAX_WAIT_MILLIS = 1;
+
+    @Param({"0", "8", "64"})
+    int batchSize;
+
+    @Param({"mem", "tcp"})
+    String db;
+
+    DataSource ds;
+    MemberServiceV4 memberService;
+    TransactionTemplate txTemplate;
+    TransferPipeline pipeline;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        ds = BenchmarkDataSources.create("hikari", db.equals("tcp") ? BenchmarkDataSources.TCP_URL : BenchmarkDataSources.URL);
+        BenchmarkDataSources.createMemberTable(ds, ACCOUNTS);
+        memberService = new MemberServiceV4(new MemberRepositoryV5(ds));
+        PlatformTransactionManager transactionManager = new DataSourceTransactionManager(ds);
+        txTemplate = new TransactionTemplate(transactionManager);
+        if (batchSize > 0) {
+            pipeline = new TransferPipeline(memberService, transactionManager, batchSize, MAX_WAIT_MILLIS, 10_000);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pipeline != null) {
+            pipeline.close();
+            System.out.println("batches=" + pipeline.getBatchCount() + ", committed=" + pipeline.getCommittedCount());
+        }
+        BenchmarkDataSources.close(ds);
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ACCOUNTS);
+        int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        String fromId = "member" + from;
+        String toId = "member" + to;
+
+        if (pipeline == null) {
+            txTemplate.executeWithoutResult(status -> memberService.accountTransferAtomic(fromId, toId, 1));
+        } else {
+            pipeline.submit(new Transfer(fromId, toId, 1)).join();
+        }
+    }
+}
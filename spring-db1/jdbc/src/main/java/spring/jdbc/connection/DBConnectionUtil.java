@@ -1,23 +1,144 @@
 package spring.jdbc.connection;
 
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static spring.jdbc.connection.ConnectionConst.*;
 
 /**
  * JDBC를 사용해서 실제 데이터베이스에 연결
+ * - 접속 URL 은 시스템 프로퍼티 db.url 로 바꿀 수 있음 (벤치마크에서 메모리 DB 사용)
+ *
+ * 커넥션 풀 모드 (기본)
+ * - 매번 DriverManager 로 연결하면 TCP 연결 + H2 로그인 비용이 호출마다 발생
+ * - 처음 getConnection() 할 때 ConnectionConst 설정으로 Hikari 풀을 만들고 이후에는 풀에서 꺼내 사용
+ * - 받은 커넥션을 close() 하면 실제로 닫히지 않고 풀에 반환됨
+ * - 시스템 프로퍼티 db.pool=false 이면 이전처럼 호출마다 DriverManager 로 새 커넥션
+ * - 풀의 물리 커넥션은 PreparedStatement 캐시(StatementCachingDataSource)를 거쳐서 만듦
+ *   (시스템 프로퍼티 db.statement-cache=false 이면 캐시 사용 X)
+ *
+ * SQL 추적 - 시스템 프로퍼티 db.trace.sample-rate (0 ~ 1, 기본 0 = 끔), spring.jdbc.trace 로거 DEBUG
+ * - 호출마다 커넥션 정보를 로그로 남기지 않고, 샘플링한 문장만 StatementTracer 로 기록
  */
 @Slf4j
 public class DBConnectionUtil {
 
+    public static final int MAXIMUM_POOL_SIZE = 10;
+
+    private static final StatementTracer tracer =
+            new StatementTracer(Double.parseDouble(System.getProperty("db.trace.sample-rate", "0")));
+
+    private static volatile HikariDataSource dataSource;
+
     public static Connection getConnection() throws SQLException {
+        Connection connection = isPooled() ? getDataSource().getConnection() : getDriverManagerConnection();
+        return tracer.trace(connection);
+    }
+
+    /**
+     * getConnection() 의 SQL 추적, setSampleRate 로 실행 중에 켜고 끌 수 있음
+     */
+    public static StatementTracer tracer() {
+        return tracer;
+    }
+
+    /**
+     * 풀을 사용하지 않고 새 커넥션 (풀 도입 전 방식)
+     */
+    public static Connection getDriverManagerConnection() throws SQLException {
+        return DriverManager.getConnection(url(), USERNAME, PASSWORD);
+    }
+
+    /**
+     * 풀을 미리 만들고 커넥션을 최대 개수까지 채워둠
+     * 애플리케이션 시작 시 호출하면 첫 요청들이 커넥션 생성 시간을 기다리지 않음
+     */
+    public static void warmUp() throws SQLException {
+        HikariDataSource ds = getDataSource();
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < MAXIMUM_POOL_SIZE; i++) {
+                connections.add(ds.getConnection());  //동시에 빌려서 풀이 커넥션을 새로 만들도록
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+        log.info("warm up pool={}", poolStats());
+    }
+
+    /**
+     * 풀 상태 (사용 중 / 대기 / 전체 커넥션 수, 커넥션을 기다리는 스레드 수)
+     * 풀을 아직 만들지 않았으면 null
+     */
+    public static HikariPoolMXBean poolMetrics() {
+        HikariDataSource ds = dataSource;
+        return ds == null ? null : ds.getHikariPoolMXBean();
+    }
+
+    public static String poolStats() {
+        HikariPoolMXBean metrics = poolMetrics();
+        if (metrics == null) {
+            return "not initialized";
+        }
+        return "active=" + metrics.getActiveConnections() + ", idle=" + metrics.getIdleConnections()
+                + ", total=" + metrics.getTotalConnections() + ", waiting=" + metrics.getThreadsAwaitingConnection();
+    }
+
+    /**
+     * 풀 종료, 다음 getConnection() 에서 다시 만듦
+     */
+    public static synchronized void close() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+        }
+    }
+
+    private static HikariDataSource getDataSource() {
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (DBConnectionUtil.class) {
+                ds = dataSource;
+                if (ds == null) {
+                    ds = createDataSource();
+                    dataSource = ds;
+                }
+            }
+        }
+        return ds;
+    }
+
+    private static HikariDataSource createDataSource() {
+        HikariDataSource ds = new HikariDataSource();
+        if ("false".equals(System.getProperty("db.statement-cache"))) {
+            ds.setJdbcUrl(url());
+            ds.setUsername(USERNAME);
+            ds.setPassword(PASSWORD);
+        } else {
+            //캐시는 풀 아래에 둬야 풀에 반환된 커넥션에서도 유지됨
+            ds.setDataSource(new StatementCachingDataSource(new DriverManagerDataSource(url(), USERNAME, PASSWORD)));
+        }
+        ds.setMaximumPoolSize(MAXIMUM_POOL_SIZE);
+        ds.setPoolName("DBConnectionUtilPool");
+        ds.setExceptionOverrideClassName(LockTimeoutExceptionOverride.class.getName());  //잠금 대기 시간 초과로 커넥션을 닫지 않음
+        return ds;
+    }
+
+    private static boolean isPooled() {
+        return !"false".equals(System.getProperty("db.pool"));
+    }
 
-        Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-        log.info("get connection={}, class={}", connection, connection.getClass());
-        return connection;
+    private static String url() {
+        return System.getProperty("db.url", URL);
     }
 }
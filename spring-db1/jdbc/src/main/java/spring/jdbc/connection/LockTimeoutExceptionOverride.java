@@ -0,0 +1,25 @@
+package spring.jdbc.connection;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+
+import java.sql.SQLException;
+
+/**
+ * 행 잠금 대기 시간 초과는 커넥션 문제가 아니므로 풀에서 제거하지 않음
+ * - H2 는 잠금 대기 시간 초과(select ... for update wait n)를 SQLTimeoutException(HYT00, 50200)으로 던짐
+ * - Hikari 는 SQLTimeoutException 을 받은 커넥션을 broken 으로 보고 닫음
+ *   -> 이어지는 롤백이 "JDBC rollback failed" 로 실패하고, 잠금 경합이 심하면 풀이 커넥션을 계속 새로 만듦
+ *
+ * 설정
+ * - 스프링 부트 : spring.datasource.hikari.exception-override-class-name
+ * - 직접 생성 : HikariConfig.setExceptionOverrideClassName(LockTimeoutExceptionOverride.class.getName())
+ */
+public class LockTimeoutExceptionOverride implements SQLExceptionOverride {
+
+    static final int H2_LOCK_TIMEOUT = 50200;
+
+    @java.lang.Override
+    public Override adjudicate(SQLException sqlException) {
+        return sqlException.getErrorCode() == H2_LOCK_TIMEOUT ? Override.DO_NOT_EVICT : Override.CONTINUE_EVICT;
+    }
+}
@@ -0,0 +1,301 @@
+package spring.jdbc.connection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PreparedStatement 캐시 - 물리 커넥션마다 SQL -> PreparedStatement LRU
+ * - prepareStatement(sql) 는 캐시에 있으면 재사용 (드라이버가 같은 SQL 을 다시 파싱하지 않음)
+ * - 받은 PreparedStatement 를 close() 하면 실제로 닫지 않고 캐시에 반환
+ *   열린 ResultSet 은 닫고 파라미터/배치를 지우고, 바꾼 설정(fetchSize, maxRows, queryTimeout 등)은 prepare 시점 값으로 되돌림
+ *   되돌릴 값을 알 수 없는 설정(escapeProcessing, cursorName 등)을 바꾼 statement 는 캐시하지 않고 닫음
+ * - 캐시 크기를 넘으면 가장 오래 사용하지 않은 statement 를 실제로 닫음
+ * - 커넥션을 실제로 닫을 때 캐시된 statement 도 모두 닫음
+ *
+ * 커넥션 풀 아래(풀이 커넥션을 만들 때 사용하는 DataSource)에 둬야 함
+ * - HikariDataSource.setDataSource(new StatementCachingDataSource(...))
+ * - 풀 위에 두면 풀의 커넥션 프록시가 반환될 때 자신이 만든 statement 를 모두 닫으므로 캐시가 유지되지 않음
+ * - 풀 아래에 있으면 트랜잭션 동기화(DataSourceUtils)로 같은 커넥션을 쓰는 동안에도 그대로 재사용됨
+ *
+ * 같은 SQL 의 statement 가 아직 사용 중(close 전)이면 캐시하지 않는 새 statement 를 만들어서
+ * 한 커넥션에서 같은 SQL 을 겹쳐서 실행해도 파라미터나 ResultSet 이 섞이지 않음
+ */
+@Slf4j
+public class StatementCachingDataSource extends DelegatingDataSource {
+
+    public static final int DEFAULT_CACHE_SIZE = 32;
+
+    private final int cacheSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public StatementCachingDataSource(DataSource targetDataSource) {
+        this(targetDataSource, DEFAULT_CACHE_SIZE);
+    }
+
+    public StatementCachingDataSource(DataSource targetDataSource, int cacheSize) {
+        super(targetDataSource);
+        this.cacheSize = cacheSize;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return cachingConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return cachingConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * 캐시에서 재사용한 횟수
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 새로 prepare 한 횟수
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private Connection cachingConnection(Connection target) {
+        CachingConnectionHandler handler = new CachingConnectionHandler(target);
+        handler.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+        return handler.proxy;
+    }
+
+    private class CachingConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final StatementCache cache = new StatementCache();
+        private Connection proxy;
+
+        CachingConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    if (args.length == 1) {  //prepareStatement(String sql) 만 캐시
+                        return prepareStatement((String) args[0]);
+                    }
+                    break;
+                case "close":
+                    cache.closeAll();
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "StatementCaching[" + target + "]";
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private PreparedStatement prepareStatement(String sql) throws SQLException {
+            synchronized (cache) {
+                CachedStatement cached = cache.get(sql);
+                if (cached != null && !cached.inUse) {
+                    hits.increment();
+                    cached.inUse = true;
+                    return cached.proxy;
+                }
+                misses.increment();
+                PreparedStatement statement = target.prepareStatement(sql);
+                if (cached != null) {
+                    return statement;  //같은 SQL 이 사용 중 -> 캐시하지 않음
+                }
+                CachedStatement created;
+                try {
+                    created = new CachedStatement(sql, statement);
+                } catch (SQLException e) {
+                    JdbcUtils.closeStatement(statement);
+                    throw e;
+                }
+                created.inUse = true;
+                cache.put(sql, created);
+                return created.proxy;
+            }
+        }
+
+        /**
+         * SQL -> statement, accessOrder LinkedHashMap 으로 LRU
+         */
+        private class StatementCache extends LinkedHashMap<String, CachedStatement> {
+
+            StatementCache() {
+                super(16, 0.75f, true);
+            }
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= cacheSize) {
+                    return false;
+                }
+                CachedStatement evicted = eldest.getValue();
+                evicted.evicted = true;
+                if (!evicted.inUse) {
+                    JdbcUtils.closeStatement(evicted.target);  //사용 중이면 반환될 때 닫음
+                }
+                return true;
+            }
+
+            void closeAll() {
+                synchronized (this) {
+                    for (Iterator<CachedStatement> it = values().iterator(); it.hasNext(); ) {
+                        JdbcUtils.closeStatement(it.next().target);
+                        it.remove();
+                    }
+                }
+            }
+        }
+
+        private class CachedStatement implements InvocationHandler {
+
+            private final String sql;
+            private final PreparedStatement target;
+            private final PreparedStatement proxy;
+            private boolean inUse;
+            private boolean evicted;
+
+            //prepare 시점(드라이버 기본값) 설정, 반환할 때 되돌림
+            private final int fetchSize;
+            private final int fetchDirection;
+            private final int maxRows;
+            private final int maxFieldSize;
+            private final int queryTimeout;
+            private boolean settingsChanged;
+            private boolean discard;  //되돌릴 수 없는 설정 변경 -> 반환할 때 닫음
+            private ResultSet resultSet;
+
+            CachedStatement(String sql, PreparedStatement target) throws SQLException {
+                this.sql = sql;
+                this.target = target;
+                this.fetchSize = target.getFetchSize();
+                this.fetchDirection = target.getFetchDirection();
+                this.maxRows = target.getMaxRows();
+                this.maxFieldSize = target.getMaxFieldSize();
+                this.queryTimeout = target.getQueryTimeout();
+                this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                        new Class<?>[]{PreparedStatement.class}, this);
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        release();
+                        return null;
+                    case "isClosed":
+                        return !inUse || target.isClosed();
+                    case "getConnection":
+                        return CachingConnectionHandler.this.proxy;
+                    case "setFetchSize":
+                    case "setFetchDirection":
+                    case "setMaxRows":
+                    case "setMaxFieldSize":
+                    case "setQueryTimeout":
+                        settingsChanged = true;
+                        break;
+                    case "setLargeMaxRows":
+                    case "setEscapeProcessing":
+                    case "setCursorName":
+                    case "setPoolable":
+                    case "closeOnCompletion":
+                        discard = true;
+                        break;
+                    case "executeQuery":
+                    case "getResultSet":
+                        Object result = invokeTarget(target, method, args);
+                        resultSet = (ResultSet) result;
+                        return result;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Cached[" + sql + "]";
+                }
+                return invokeTarget(target, method, args);
+            }
+
+            private void release() {
+                synchronized (cache) {
+                    if (!inUse) {
+                        return;  //close 를 여러 번 호출한 경우
+                    }
+                }
+                boolean reusable = !discard;
+                if (reusable) {
+                    try {
+                        //다음 사용자가 이전 파라미터, 결과, 설정을 보지 않도록 반환 전에 정리
+                        JdbcUtils.closeResultSet(resultSet);
+                        target.clearParameters();
+                        target.clearBatch();
+                        target.clearWarnings();
+                        if (settingsChanged) {
+                            resetSettings();
+                        }
+                    } catch (SQLException e) {
+                        log.info("discard cached statement sql={}", sql, e);
+                        reusable = false;
+                    }
+                }
+                resultSet = null;
+                if (!reusable) {
+                    //다시 사용할 수 없는 statement 는 캐시에서 제거
+                    synchronized (cache) {
+                        cache.remove(sql, this);
+                        evicted = true;
+                    }
+                }
+                synchronized (cache) {
+                    inUse = false;
+                    if (evicted) {
+                        JdbcUtils.closeStatement(target);
+                    }
+                }
+            }
+
+            private void resetSettings() throws SQLException {
+                target.setMaxRows(maxRows);  //maxRows 먼저 (드라이버에 따라 fetchSize > maxRows 는 오류)
+                target.setFetchSize(fetchSize);
+                target.setFetchDirection(fetchDirection);
+                target.setMaxFieldSize(maxFieldSize);
+                target.setQueryTimeout(queryTimeout);
+                settingsChanged = false;
+            }
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
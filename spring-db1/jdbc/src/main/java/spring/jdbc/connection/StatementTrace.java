@@ -0,0 +1,17 @@
+package spring.jdbc.connection;
+
+import lombok.Data;
+
+/**
+ * SQL 실행 1건 추적 결과 (StatementTracer)
+ */
+@Data
+public class StatementTrace {
+
+    private final String sql;
+    private final int binds;       //바인딩한 파라미터 수 (가장 큰 파라미터 인덱스)
+    private final int batchSize;   //executeBatch 인 경우 addBatch 횟수, 아니면 0
+    private final long rows;       //조회한 행 수 또는 수정된 행 수, 알 수 없으면 -1
+    private final long elapsedNanos;  //execute 호출 시간 (조회 결과를 읽는 시간 제외)
+    private final String connection;
+}
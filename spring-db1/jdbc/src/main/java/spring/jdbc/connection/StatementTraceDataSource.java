@@ -0,0 +1,40 @@
+package spring.jdbc.connection;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 커넥션을 StatementTracer 로 감싸는 DataSource
+ * - 풀(HikariDataSource) 위에 둠 -> 커넥션을 꺼낼 때마다 켜짐/꺼짐 확인, 꺼져 있으면 풀의 커넥션 그대로
+ * - 트랜잭션 동기화는 DataSource 객체 기준이므로 트랜잭션 매니저와 저장소 모두 이 DataSource 를 사용해야 함
+ */
+public class StatementTraceDataSource extends DelegatingDataSource {
+
+    private final StatementTracer tracer;
+
+    public StatementTraceDataSource(DataSource targetDataSource, StatementTracer tracer) {
+        super(targetDataSource);
+        this.tracer = tracer;
+    }
+
+    public StatementTraceDataSource(DataSource targetDataSource, double sampleRate) {
+        this(targetDataSource, new StatementTracer(sampleRate));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return tracer.trace(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return tracer.trace(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    public StatementTracer getTracer() {
+        return tracer;
+    }
+}
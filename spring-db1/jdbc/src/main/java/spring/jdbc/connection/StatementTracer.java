@@ -0,0 +1,304 @@
+package spring.jdbc.connection;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * SQL 실행 추적 - 샘플링한 문장의 SQL, 바인딩 파라미터 수, 실행 시간, 행 수를 기록
+ * - 저장소마다 커넥션을 얻을 때/수정할 때 로그를 남기던 것을 대신함
+ * - 꺼져 있으면(sampleRate 0 또는 spring.jdbc.trace 로거가 DEBUG 가 아니면) 받은 커넥션을 그대로 반환
+ *   -> 프록시도, 시간 측정도, 로그 문자열 생성도 없음
+ * - 켜져 있으면 prepareStatement/createStatement 마다 sampleRate 확률로 추적할 문장을 고름
+ *   추적하지 않는 문장은 드라이버의 statement 를 그대로 반환
+ * - 기록은 spring.jdbc.trace 로거에 DEBUG 키-값(sql, binds, batch, rows, micros, connection)으로 남김
+ *   sink 를 넘기면 로그 대신 sink 로 전달 (테스트, 수집기)
+ * - sampleRate 는 실행 중에 바꿀 수 있음, 이미 받은 커넥션에는 다음 커넥션부터 적용
+ *
+ * 커넥션을 받을 때 감싸야 함 - StatementTraceDataSource 또는 trace(connection)
+ */
+@Slf4j(topic = "spring.jdbc.trace")
+public class StatementTracer {
+
+    private volatile double sampleRate;
+    private final Consumer<StatementTrace> sink;
+    private final LongAdder traced = new LongAdder();
+
+    /**
+     * spring.jdbc.trace 로거에 기록
+     */
+    public StatementTracer(double sampleRate) {
+        this(sampleRate, null);
+    }
+
+    public StatementTracer(double sampleRate, Consumer<StatementTrace> sink) {
+        this.sampleRate = sampleRate;
+        this.sink = sink;
+    }
+
+    public boolean isEnabled() {
+        return sampleRate > 0 && (sink != null || log.isDebugEnabled());
+    }
+
+    /**
+     * @param sampleRate 0 ~ 1, 0 이면 끔
+     */
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * 지금까지 기록한 문장 실행 수
+     */
+    public long getTracedCount() {
+        return traced.sum();
+    }
+
+    /**
+     * 꺼져 있으면 connection 을 그대로, 켜져 있으면 추적 프록시 반환
+     */
+    public Connection trace(Connection connection) {
+        if (!isEnabled()) {
+            return connection;
+        }
+        ConnectionHandler handler = new ConnectionHandler(connection);
+        handler.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+        return handler.proxy;
+    }
+
+    private boolean sampled() {
+        double rate = sampleRate;
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void record(StatementTrace trace) {
+        traced.increment();
+        if (sink != null) {
+            sink.accept(trace);
+            return;
+        }
+        log.atDebug()
+                .addKeyValue("sql", trace.getSql())
+                .addKeyValue("binds", trace.getBinds())
+                .addKeyValue("batch", trace.getBatchSize())
+                .addKeyValue("rows", trace.getRows())
+                .addKeyValue("micros", TimeUnit.NANOSECONDS.toMicros(trace.getElapsedNanos()))
+                .addKeyValue("connection", trace.getConnection())
+                .log("statement");
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private Connection proxy;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                case "prepareCall":
+                    Statement prepared = (Statement) invokeTarget(target, method, args);
+                    return sampled() ? tracing(prepared, method.getReturnType(), (String) args[0]) : prepared;
+                case "createStatement":
+                    Statement statement = (Statement) invokeTarget(target, method, args);
+                    return sampled() ? tracing(statement, Statement.class, null) : statement;  //SQL 은 execute 할 때
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Traced[" + target + "]";
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private Object tracing(Statement statement, Class<?> type, String sql) {
+            StatementHandler handler = new StatementHandler(this, statement, sql);
+            return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final ConnectionHandler connection;
+        private final Statement target;
+        private String sql;
+        private int binds;
+        private int batchSize;
+        private Query pending;  //결과를 아직 다 읽지 않은 조회
+
+        StatementHandler(ConnectionHandler connection, Statement target, String sql) {
+            this.connection = connection;
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                binds = Math.max(binds, (Integer) args[0]);  //setString(1, ..), setInt(2, ..) ...
+                return invokeTarget(target, method, args);
+            }
+            switch (name) {
+                case "addBatch":
+                    batchSize++;
+                    break;
+                case "clearBatch":
+                    batchSize = 0;
+                    break;
+                case "clearParameters":
+                    binds = 0;
+                    break;
+                case "executeQuery":
+                    return executeQuery(method, args);
+                case "execute":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "executeBatch":
+                case "executeLargeBatch":
+                    return execute(method, args);
+                case "close":
+                    finishPending();
+                    break;
+                case "getConnection":
+                    return connection.proxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Traced[" + target + "]";
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private Object executeQuery(Method method, Object[] args) throws Throwable {
+            finishPending();
+            sqlFromArgs(args);
+            long start = System.nanoTime();
+            ResultSet rs = (ResultSet) invokeTarget(target, method, args);
+            pending = new Query(rs, System.nanoTime() - start);
+            return pending.proxy;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishPending();
+            sqlFromArgs(args);
+            long start = System.nanoTime();
+            Object result = invokeTarget(target, method, args);
+            long elapsed = System.nanoTime() - start;
+
+            long rows;
+            if (result instanceof int[]) {
+                rows = sum((int[]) result);
+            } else if (result instanceof long[]) {
+                rows = sum((long[]) result);
+            } else if (result instanceof Number) {
+                rows = ((Number) result).longValue();
+            } else {
+                rows = target.getUpdateCount();  //execute(): 조회면 -1
+            }
+            record(new StatementTrace(sql, binds, batchSize, rows, elapsed, String.valueOf(connection.target)));
+            batchSize = 0;
+            return result;
+        }
+
+        private void sqlFromArgs(Object[] args) {
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                sql = (String) args[0];  //Statement.execute(sql)
+            }
+        }
+
+        private void finishPending() {
+            if (pending != null) {
+                Query query = pending;
+                pending = null;
+                record(new StatementTrace(sql, binds, 0, query.rows, query.elapsedNanos, String.valueOf(connection.target)));
+            }
+        }
+
+        /**
+         * 조회 결과 - next() 로 읽은 행 수를 세고 ResultSet 을 닫을 때(또는 statement 를 닫거나 다시 실행할 때) 기록
+         */
+        private class Query implements InvocationHandler {
+
+            private final ResultSet target;
+            private final ResultSet proxy;
+            private final long elapsedNanos;
+            private long rows;
+
+            Query(ResultSet target, long elapsedNanos) {
+                this.target = target;
+                this.elapsedNanos = elapsedNanos;
+                this.proxy = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                        new Class<?>[]{ResultSet.class}, this);
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "next":
+                        Object hasNext = invokeTarget(target, method, args);
+                        if (Boolean.TRUE.equals(hasNext)) {
+                            rows++;
+                        }
+                        return hasNext;
+                    case "close":
+                        if (pending == this) {
+                            finishPending();
+                        }
+                        break;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                }
+                return invokeTarget(target, method, args);
+            }
+        }
+    }
+
+    private static long sum(int[] counts) {
+        long sum = 0;
+        for (int count : counts) {
+            sum += Math.max(count, 0);  //SUCCESS_NO_INFO(-2) 는 제외
+        }
+        return sum;
+    }
+
+    private static long sum(long[] counts) {
+        long sum = 0;
+        for (long count : counts) {
+            sum += Math.max(count, 0);
+        }
+        return sum;
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -7,6 +7,7 @@ public class Member {
 
     private String memberId;
     private int money;
+    private Long version;  //낙관적 락 - version 컬럼을 사용할 때만 (MemberRepositoryV5 versioned), 아니면 null
 
     public Member() {
     }
@@ -0,0 +1,14 @@
+package spring.jdbc.domain;
+
+import lombok.Data;
+
+/**
+ * 계좌이체 1건 (fromId -> toId 로 money 만큼)
+ */
+@Data
+public class Transfer {
+
+    private final String fromId;
+    private final String toId;
+    private final int money;
+}
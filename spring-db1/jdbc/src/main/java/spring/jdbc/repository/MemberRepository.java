@@ -2,10 +2,48 @@ package spring.jdbc.repository;
 
 import spring.jdbc.domain.Member;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface MemberRepository {
 
     Member save(Member member);
     Member findById(String memberId);
+
+    /**
+     * 조회 + 행 잠금 (select ... for update, 트랜잭션 안에서 사용)
+     * 커밋/롤백할 때까지 다른 트랜잭션의 수정/잠금은 대기, 설정한 대기 시간을 넘으면 예외
+     * 여러 행을 잠글 때는 데드락이 생기지 않도록 항상 같은 순서(member_id 순서)로 호출
+     */
+    Member findByIdForUpdate(String memberId);
+
     void update(String memberId, int money);
+
+    /**
+     * 조회한 회원 기준 수정
+     * version 을 사용하는 구현은 조회 이후 다른 트랜잭션이 수정했으면 OptimisticLockingFailureException
+     */
+    default void update(Member member) {
+        update(member.getMemberId(), member.getMoney());
+    }
     void delete(String memberId);
+
+    /**
+     * money 를 조회하지 않고 DB 에서 바로 delta 만큼 더함 (update ... set money = money + ?)
+     * - 읽고 계산해서 쓰는 사이에 다른 트랜잭션의 수정이 사라지는 문제(lost update)가 없음
+     * - 잔액이 음수가 되는 경우는 수정하지 않음
+     * @return 수정 여부 (회원이 없거나 잔액이 부족하면 false)
+     */
+    boolean addMoney(String memberId, int delta);
+
+    /**
+     * 여러 회원을 한 번의 IN 쿼리로 조회하면서 행 잠금 (트랜잭션 안에서 사용)
+     * 여러 트랜잭션이 서로 다른 순서로 잠가서 데드락이 생기지 않도록 항상 member_id 순서로 잠금
+     */
+    List<Member> findAllByIdForUpdate(Collection<String> memberIds);
+
+    /**
+     * 여러 회원의 money 를 JDBC 배치 한 번으로 수정
+     */
+    void updateAll(List<Member> members);
 }
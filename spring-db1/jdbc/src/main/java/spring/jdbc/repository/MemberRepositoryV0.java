@@ -9,6 +9,7 @@ import java.util.NoSuchElementException;
 
 /**
  * JDBC - DriverManager 사용
+ * DBConnectionUtil 이 커넥션 풀을 사용하므로 쿼리마다 새로 연결하지 않음 (close 하면 풀에 반환)
  */
 @Slf4j
 public class MemberRepositoryV0 {
@@ -98,8 +99,7 @@ public class MemberRepositoryV0 {
             pstmt.setInt(1, money);
             pstmt.setString(2, memberId);
 
-            int resultSize = pstmt.executeUpdate();
-            log.info("resultSize={}", resultSize);
+            pstmt.executeUpdate();  //수정된 행 수, 실행 시간은 StatementTracer 로 확인
         } catch (SQLException e) {
             log.error("db error", e);
             throw e;
@@ -106,8 +106,7 @@ public class MemberRepositoryV1 {
             pstmt.setInt(1, money);
             pstmt.setString(2, memberId);
 
-            int resultSize = pstmt.executeUpdate();
-            log.info("resultSize={}", resultSize);
+            pstmt.executeUpdate();  //수정된 행 수, 실행 시간은 StatementTracer 로 확인
         } catch (SQLException e) {
             log.error("db error", e);
             throw e;
@@ -148,8 +147,6 @@ public class MemberRepositoryV1 {
     }
 
     private Connection getConnection() throws SQLException {
-        Connection con = dataSource.getConnection();
-        log.info("get connection={}, class={}", con, con.getClass());
-        return con;
+        return dataSource.getConnection();
     }
 }
@@ -142,8 +142,7 @@ public class MemberRepositoryV2 {
             pstmt.setInt(1, money);
             pstmt.setString(2, memberId);
 
-            int resultSize = pstmt.executeUpdate();
-            log.info("resultSize={}", resultSize);
+            pstmt.executeUpdate();  //수정된 행 수, 실행 시간은 StatementTracer 로 확인
         } catch (SQLException e) {
             log.error("db error", e);
             throw e;
@@ -169,8 +168,7 @@ public class MemberRepositoryV2 {
             pstmt.setInt(1, money);
             pstmt.setString(2, memberId);
 
-            int resultSize = pstmt.executeUpdate();
-            log.info("resultSize={}", resultSize);
+            pstmt.executeUpdate();  //수정된 행 수, 실행 시간은 StatementTracer 로 확인
         } catch (SQLException e) {
             log.error("db error", e);
             throw e;
@@ -213,8 +211,6 @@ public class MemberRepositoryV2 {
     }
 
     private Connection getConnection() throws SQLException {
-        Connection con = dataSource.getConnection();
-        log.info("get connection={}, class={}", con, con.getClass());
-        return con;
+        return dataSource.getConnection();
     }
 }
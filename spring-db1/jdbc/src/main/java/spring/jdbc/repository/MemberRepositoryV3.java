@@ -7,6 +7,7 @@ import spring.jdbc.domain.Member;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.time.Duration;
 import java.util.NoSuchElementException;
 
 /**
@@ -18,11 +19,19 @@ import java.util.NoSuchElementException;
 public class MemberRepositoryV3 {
 
     private final DataSource dataSource;
+    private Duration lockTimeout;
 
     public MemberRepositoryV3(DataSource dataSource) {
         this.dataSource = dataSource;
     }
 
+    /**
+     * 행 잠금(for update) 대기 시간, null 이면 DB 기본값, 0 이면 기다리지 않음
+     */
+    public void setLockTimeout(Duration lockTimeout) {
+        this.lockTimeout = lockTimeout;
+    }
+
     /**
      * 1)데이터 저장
      * @param member
@@ -89,6 +98,42 @@ public class MemberRepositoryV3 {
         }
     }
 
+    /**
+     * 2-1)데이터 조회 + 행 잠금 - 트랜잭션 안에서 사용, 커밋/롤백할 때까지 다른 트랜잭션은 수정/잠금 대기
+     * @param memberId
+     * @return
+     * @throws SQLException
+     */
+    public Member findByIdForUpdate(String memberId) throws SQLException {
+        String sql = MemberSql.findByIdForUpdate(lockTimeout);
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            pstmt.setString(1, memberId);
+
+            rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                Member member = new Member();
+                member.setMemberId(rs.getString("member_id"));
+                member.setMoney(rs.getInt("money"));
+                return member;
+            } else {
+                throw new NoSuchElementException("member not found memberId=" + memberId);
+            }
+        } catch (SQLException e) {
+            log.error("db error", e);
+            throw e;
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
     /**
      * 3)데이터 수정
      * @param memberId
@@ -108,8 +153,7 @@ public class MemberRepositoryV3 {
             pstmt.setInt(1, money);
             pstmt.setString(2, memberId);
 
-            int resultSize = pstmt.executeUpdate();
-            log.info("resultSize={}", resultSize);
+            pstmt.executeUpdate();  //수정된 행 수, 실행 시간은 StatementTracer 로 확인
         } catch (SQLException e) {
             log.error("db error", e);
             throw e;
@@ -152,8 +196,6 @@ public class MemberRepositoryV3 {
 
     private Connection getConnection() throws SQLException {
         //주의! 트랜잭션 동기화를 사용하려면 DataSourceUtils를 사용해야 한다.
-        Connection con = DataSourceUtils.getConnection(dataSource);
-        log.info("get connection={}, class={}", con, con.getClass());
-        return con;
+        return DataSourceUtils.getConnection(dataSource);
     }
 }
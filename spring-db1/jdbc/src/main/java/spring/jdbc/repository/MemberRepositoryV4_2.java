@@ -10,6 +10,10 @@ import spring.jdbc.repository.ex.MyDbException;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
@@ -20,6 +24,7 @@ public class MemberRepositoryV4_2 implements MemberRepository {
 
     private final DataSource dataSource;
     private final SQLExceptionTranslator extranslator;
+    private Duration lockTimeout;
 
     public MemberRepositoryV4_2(DataSource dataSource) {
 
@@ -27,6 +32,14 @@ public class MemberRepositoryV4_2 implements MemberRepository {
         this.extranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
     }
 
+    /**
+     * 행 잠금(for update) 대기 시간, null 이면 DB 기본값, 0 이면 기다리지 않음
+     * 시간 안에 잠그지 못하면 CannotAcquireLockException
+     */
+    public void setLockTimeout(Duration lockTimeout) {
+        this.lockTimeout = lockTimeout;
+    }
+
     /**
      * 1)데이터 저장
      * @param member
@@ -93,6 +106,41 @@ public class MemberRepositoryV4_2 implements MemberRepository {
         }
     }
 
+    /**
+     * 2-1)데이터 조회 + 행 잠금 - 트랜잭션 안에서 사용, 커밋/롤백할 때까지 다른 트랜잭션은 수정/잠금 대기
+     * @param memberId
+     * @return
+     */
+    @Override
+    public Member findByIdForUpdate(String memberId) {
+        String sql = MemberSql.findByIdForUpdate(lockTimeout);
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            pstmt.setString(1, memberId);
+
+            rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                Member member = new Member();
+                member.setMemberId(rs.getString("member_id"));
+                member.setMoney(rs.getInt("money"));
+                return member;
+            } else {
+                throw new NoSuchElementException("member not found memberId=" + memberId);
+            }
+        } catch (SQLException e) {
+            throw extranslator.translate("findByIdForUpdate", sql, e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
     /**
      * 3)데이터 수정
      * @param memberId
@@ -113,8 +161,7 @@ public class MemberRepositoryV4_2 implements MemberRepository {
             pstmt.setInt(1, money);
             pstmt.setString(2, memberId);
 
-            int resultSize = pstmt.executeUpdate();
-            log.info("resultSize={}", resultSize);
+            pstmt.executeUpdate();  //수정된 행 수, 실행 시간은 StatementTracer 로 확인
         } catch (SQLException e) {
             throw extranslator.translate("update", sql, e);
         } finally {
@@ -147,6 +194,104 @@ public class MemberRepositoryV4_2 implements MemberRepository {
         }
     }
 
+    /**
+     * 5)여러 회원 조회 + 행 잠금 - member_id 순서로 잠금
+     * @param memberIds
+     * @return member_id 순서
+     */
+    @Override
+    public List<Member> findAllByIdForUpdate(Collection<String> memberIds) {
+        List<String> ids = MemberSql.sortedIds(memberIds);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = MemberSql.findAllByIdForUpdate(ids.size(), lockTimeout);
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            for (int i = 0; i < ids.size(); i++) {
+                pstmt.setString(i + 1, ids.get(i));
+            }
+
+            rs = pstmt.executeQuery();
+
+            List<Member> members = new ArrayList<>();
+            while (rs.next()) {
+                Member member = new Member();
+                member.setMemberId(rs.getString("member_id"));
+                member.setMoney(rs.getInt("money"));
+                members.add(member);
+            }
+            return members;
+        } catch (SQLException e) {
+            throw extranslator.translate("findAllByIdForUpdate", sql, e);
+        } finally {
+            close(con, pstmt, rs);
+        }
+    }
+
+    /**
+     * 6)여러 회원 수정 - JDBC 배치 (executeBatch 한 번)
+     * @param members
+     */
+    @Override
+    public void updateAll(List<Member> members) {
+        String sql = MemberSql.UPDATE;
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+            for (Member member : members) {
+                pstmt.setInt(1, member.getMoney());
+                pstmt.setString(2, member.getMemberId());
+                pstmt.addBatch();
+            }
+
+            pstmt.executeBatch();
+        } catch (SQLException e) {
+            throw extranslator.translate("updateAll", sql, e);
+        } finally {
+            close(con, pstmt, null);
+        }
+    }
+
+    /**
+     * 7)money 에 delta 더하기 - 조회 없이 DB 에서 계산, 잔액이 음수가 되면 수정 X
+     * @param memberId
+     * @param delta
+     * @return 수정 여부
+     */
+    @Override
+    public boolean addMoney(String memberId, int delta) {
+        String sql = MemberSql.ADD_MONEY;
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            con = getConnection();
+            pstmt = con.prepareStatement(sql);
+
+            pstmt.setInt(1, delta);
+            pstmt.setString(2, memberId);
+            pstmt.setInt(3, delta);
+
+            return pstmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw extranslator.translate("addMoney", sql, e);
+        } finally {
+            close(con, pstmt, null);
+        }
+    }
+
     private void close(Connection con, Statement pstmt, ResultSet rs) {
         JdbcUtils.closeResultSet(rs);
         JdbcUtils.closeStatement(pstmt);
@@ -156,8 +301,6 @@ public class MemberRepositoryV4_2 implements MemberRepository {
 
     private Connection getConnection() throws SQLException {
         //주의! 트랜잭션 동기화를 사용하려면 DataSourceUtils를 사용해야 한다.
-        Connection con = DataSourceUtils.getConnection(dataSource);
-        log.info("get connection={}, class={}", con, con.getClass());
-        return con;
+        return DataSourceUtils.getConnection(dataSource);
     }
 }
@@ -1,23 +1,52 @@
 package spring.jdbc.repository;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import spring.jdbc.domain.Member;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * JdbcTemplate 사용
+ *
+ * versioned=true 이면 낙관적 락 (member 테이블에 version bigint default 0 not null 컬럼 필요)
+ * - 조회할 때 version 도 읽고, update(Member) 는 조회한 version 과 같을 때만 수정 + version 증가
+ * - 그 사이 다른 트랜잭션이 수정했으면(수정된 행 0) OptimisticLockingFailureException
+ *   -> ConcurrencyRetryTemplate 으로 트랜잭션을 다시 실행
  */
 @Slf4j
 public class MemberRepositoryV5 implements MemberRepository {
 
     private final JdbcTemplate template;
+    private final boolean versioned;
+    private Duration lockTimeout;
 
     public MemberRepositoryV5(DataSource dataSource) {
+        this(dataSource, false);
+    }
+
+    public MemberRepositoryV5(DataSource dataSource, boolean versioned) {
         template = new JdbcTemplate(dataSource);
+        //에러 코드 기반 변환 - 잠금 대기 시간 초과(H2 50200)가 CannotAcquireLockException 이 되도록
+        //(기본 변환기는 SQLTimeoutException 이라서 QueryTimeoutException, 재시도 대상(ConcurrencyFailureException)이 아님)
+        template.setExceptionTranslator(new SQLErrorCodeSQLExceptionTranslator(dataSource));
+        this.versioned = versioned;
+    }
+
+    /**
+     * 행 잠금(for update) 대기 시간, null 이면 DB 기본값, 0 이면 기다리지 않음
+     * 시간 안에 잠그지 못하면 CannotAcquireLockException
+     */
+    public void setLockTimeout(Duration lockTimeout) {
+        this.lockTimeout = lockTimeout;
     }
 
     /**
@@ -28,6 +57,11 @@ public class MemberRepositoryV5 implements MemberRepository {
      */
     @Override
     public Member save(Member member) {
+        if (versioned) {
+            template.update(MemberSql.INSERT_VERSIONED, member.getMemberId(), member.getMoney());
+            member.setVersion(0L);
+            return member;
+        }
         String sql = "insert into member(member_id, money) values(?, ?)";
         template.update(sql, member.getMemberId(), member.getMoney());
         return member;
@@ -45,6 +79,16 @@ public class MemberRepositoryV5 implements MemberRepository {
         return template.queryForObject(sql, memberRowMapper(), memberId);
     }
 
+    /**
+     * 2-1)데이터 조회 + 행 잠금 - 트랜잭션 안에서 사용
+     * @param memberId
+     * @return
+     */
+    @Override
+    public Member findByIdForUpdate(String memberId) {
+        return template.queryForObject(MemberSql.findByIdForUpdate(lockTimeout), memberRowMapper(), memberId);
+    }
+
     /**
      * 3)데이터 수정
      * @param memberId
@@ -53,10 +97,29 @@ public class MemberRepositoryV5 implements MemberRepository {
      */
     @Override
     public void update(String memberId, int money) {
-        String sql = "update member set money=? where member_id=?";
+        String sql = versioned ? MemberSql.UPDATE_VERSIONED : "update member set money=? where member_id=?";
         template.update(sql, money, memberId);
     }
 
+    /**
+     * 3-1)조회한 회원 기준 수정 - 낙관적 락
+     * @param member
+     */
+    @Override
+    public void update(Member member) {
+        if (!versioned || member.getVersion() == null) {
+            update(member.getMemberId(), member.getMoney());
+            return;
+        }
+        int resultSize = template.update(MemberSql.UPDATE_IF_VERSION,
+                member.getMoney(), member.getMemberId(), member.getVersion());
+        if (resultSize == 0) {
+            throw new OptimisticLockingFailureException(
+                    "stale member memberId=" + member.getMemberId() + ", version=" + member.getVersion());
+        }
+        member.setVersion(member.getVersion() + 1);
+    }
+
     /**
      * 4)데이터 삭제
      * @param memberId
@@ -68,11 +131,54 @@ public class MemberRepositoryV5 implements MemberRepository {
         template.update(sql, memberId);
     }
 
+    /**
+     * 5)여러 회원 조회 + 행 잠금 - member_id 순서로 잠금
+     * @param memberIds
+     * @return member_id 순서
+     */
+    @Override
+    public List<Member> findAllByIdForUpdate(Collection<String> memberIds) {
+        List<String> ids = MemberSql.sortedIds(memberIds);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = MemberSql.findAllByIdForUpdate(ids.size(), lockTimeout);
+        return template.query(sql, memberRowMapper(), ids.toArray());
+    }
+
+    /**
+     * 6)여러 회원 수정 - JDBC 배치
+     * @param members
+     */
+    @Override
+    public void updateAll(List<Member> members) {
+        List<Object[]> args = new ArrayList<>(members.size());
+        for (Member member : members) {
+            args.add(new Object[]{member.getMoney(), member.getMemberId()});
+        }
+        template.batchUpdate(versioned ? MemberSql.UPDATE_VERSIONED : MemberSql.UPDATE, args);
+    }
+
+    /**
+     * 7)money 에 delta 더하기 - 조회 없이 DB 에서 계산, 잔액이 음수가 되면 수정 X
+     * @param memberId
+     * @param delta
+     * @return 수정 여부
+     */
+    @Override
+    public boolean addMoney(String memberId, int delta) {
+        String sql = versioned ? MemberSql.ADD_MONEY_VERSIONED : MemberSql.ADD_MONEY;
+        return template.update(sql, delta, memberId, delta) == 1;
+    }
+
     private RowMapper<Member> memberRowMapper() {
         return (rs, rowNum) -> {
             Member member = new Member();
             member.setMemberId(rs.getString("member_id"));
             member.setMoney(rs.getInt("money"));
+            if (versioned) {
+                member.setVersion(rs.getLong("version"));
+            }
             return member;
         };
     }
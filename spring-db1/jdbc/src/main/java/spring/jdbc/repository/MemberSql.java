@@ -0,0 +1,64 @@
+package spring.jdbc.repository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * MemberRepositoryV3, V4_1, V4_2, V5 공통 SQL
+ */
+abstract class MemberSql {
+
+    static final String UPDATE = "update member set money=? where member_id=?";
+    static final String ADD_MONEY = "update member set money = money + ? where member_id = ? and money + ? >= 0";
+
+    //version 컬럼 사용 시 - 모든 수정에서 version 증가 (다른 수정 방식과 섞여도 낙관적 락이 변경을 감지하도록)
+    static final String INSERT_VERSIONED = "insert into member(member_id, money, version) values(?, ?, 0)";
+    static final String UPDATE_VERSIONED = "update member set money=?, version=version+1 where member_id=?";
+    static final String UPDATE_IF_VERSION = "update member set money=?, version=version+1 where member_id=? and version=?";
+    static final String ADD_MONEY_VERSIONED = "update member set money = money + ?, version = version + 1 where member_id = ? and money + ? >= 0";
+
+    /**
+     * select ... where member_id = ? for update [wait n | nowait]
+     */
+    static String findByIdForUpdate(Duration lockTimeout) {
+        return "select * from member where member_id = ? for update" + lockWait(lockTimeout);
+    }
+
+    /**
+     * select ... where member_id in (?, ?, ...) order by member_id for update [wait n | nowait]
+     */
+    static String findAllByIdForUpdate(int count, Duration lockTimeout) {
+        StringBuilder sql = new StringBuilder("select * from member where member_id in (");
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(") order by member_id for update").append(lockWait(lockTimeout)).toString();
+    }
+
+    /**
+     * 행 잠금 대기 시간 - 문장 단위로 지정 (세션 설정 SET LOCK_TIMEOUT 을 바꾸지 않으므로 풀의 다른 사용자에게 영향 X)
+     * - null : DB 기본값 (H2 LOCK_TIMEOUT)
+     * - 0 : nowait, 잠겨 있으면 바로 예외
+     * - 그 외 : wait 초 (H2, Oracle 문법), 시간 안에 못 잠그면 예외 (H2 에러 코드 50200 -> CannotAcquireLockException)
+     */
+    private static String lockWait(Duration lockTimeout) {
+        if (lockTimeout == null) {
+            return "";
+        }
+        if (lockTimeout.isZero()) {
+            return " nowait";
+        }
+        return " wait " + BigDecimal.valueOf(lockTimeout.toMillis(), 3).toPlainString();
+    }
+
+    /**
+     * 중복 제거 + member_id 순서 정렬 (잠금 순서)
+     */
+    static List<String> sortedIds(Collection<String> memberIds) {
+        return new ArrayList<>(new TreeSet<>(memberIds));
+    }
+}
@@ -0,0 +1,111 @@
+package spring.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 회원 계좌 잠금 - JVM 안의 스트라이프 락 (memberId 해시 -> 락 배열의 한 칸)
+ * - 한 JVM 이 담당 회원들을 혼자 수정하는 구조(회원 파티션)에서 사용
+ *   같은 회원에 대한 이체를 JVM 안에서 먼저 줄 세워서 DB 행 잠금 대기가 생기지 않게 함
+ * - 두 회원의 스트라이프를 항상 인덱스 순서로 잠금 -> 반대 방향 이체가 동시에 실행돼도 데드락 X
+ *   두 회원이 같은 스트라이프면 한 번만 잠금
+ * - 서로 다른 스트라이프의 이체는 완전히 병렬로 실행 (accountTransferAtomic 과 함께 사용하면 DB 에서도 서로 기다리지 않음)
+ * - 스트라이프 수가 적을수록 메모리는 적지만 관계없는 회원끼리 같은 락을 기다리는 경우가 늘어남
+ *
+ * 트랜잭션 밖에서 호출해야 함 (@Transactional 서비스 호출을 감싸서 커밋이 끝난 뒤 락 해제)
+ * 트랜잭션 안에서 잠그면 커밋 전에 락이 풀려서 다음 이체가 DB 행 잠금을 기다리게 됨
+ * DB 를 다른 JVM 과 함께 수정하면 이 락으로는 막을 수 없으므로 DB 수준 동시성 제어(atomic update, for update)는 그대로 필요
+ */
+@Slf4j
+public class AccountLockManager {
+
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+    private final LongAdder contended = new LongAdder();
+
+    public AccountLockManager() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripes 락 개수, 2의 거듭제곱으로 올림
+     */
+    public AccountLockManager(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be positive: " + stripes);
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[Math.max(size, 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 두 회원의 스트라이프를 잠그고 실행
+     */
+    public <T> T execute(String memberId1, String memberId2, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            log.warn("account lock acquired inside a transaction, lock is released before commit");
+        }
+        int first = stripeIndex(memberId1);
+        int second = stripeIndex(memberId2);
+        if (first > second) {
+            int tmp = first;
+            first = second;
+            second = tmp;
+        }
+
+        lock(stripes[first]);
+        try {
+            if (second != first) {
+                lock(stripes[second]);
+            }
+            try {
+                return action.get();
+            } finally {
+                if (second != first) {
+                    stripes[second].unlock();
+                }
+            }
+        } finally {
+            stripes[first].unlock();
+        }
+    }
+
+    public void executeWithoutResult(String memberId1, String memberId2, Runnable action) {
+        execute(memberId1, memberId2, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * 다른 스레드가 잡고 있어서 기다린 횟수
+     */
+    public long getContendedCount() {
+        return contended.sum();
+    }
+
+    int stripeIndex(String memberId) {
+        int h = memberId.hashCode();
+        h ^= (h >>> 16);  //HashMap 과 같이 상위 비트를 섞어서 비슷한 memberId 가 몰리지 않도록
+        return h & (stripes.length - 1);
+    }
+
+    private void lock(ReentrantLock lock) {
+        if (!lock.tryLock()) {
+            contended.increment();
+            lock.lock();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package spring.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 동시성 충돌 시 재시도
+ * - 스프링 예외 추상화의 ConcurrencyFailureException 이면 다시 실행
+ *   (OptimisticLockingFailureException - version 충돌, 데드락 / 락 타임아웃 - 예외 변환기가 변환한 예외)
+ * - 재시도 간격: 최대 min(maxBackoff, baseBackoff * 2^(시도-1)) 안에서 랜덤 (full jitter)
+ *   -> 충돌한 트랜잭션들이 같은 시점에 다시 충돌하지 않도록
+ * - 트랜잭션 밖에서 호출해야 함 (@Transactional 서비스 호출을 감싸서 시도마다 새 트랜잭션)
+ *   이미 트랜잭션 안이면 같은 트랜잭션을 다시 실행할 수 없으므로 재시도하지 않고 예외를 그대로 던짐
+ */
+@Slf4j
+public class ConcurrencyRetryTemplate {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+    public static final long DEFAULT_BASE_BACKOFF_MILLIS = 5;
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = 200;
+
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final LongAdder retries = new LongAdder();
+
+    public ConcurrencyRetryTemplate() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS);
+    }
+
+    public ConcurrencyRetryTemplate(int maxAttempts, long baseBackoffMillis, long maxBackoffMillis) {
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw e;
+                }
+                long backoff = backoffMillis(attempt);
+                log.info("concurrency failure, retry attempt={}, backoff={}ms, cause={}", attempt, backoff, e.getMessage());
+                retries.increment();
+                sleep(backoff, e);
+            }
+        }
+    }
+
+    public void executeWithoutResult(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 지금까지 재시도한 횟수
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void sleep(long millis, ConcurrencyFailureException cause) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -24,6 +24,31 @@ public class MemberServiceV3_3 {
         bizLogic(fromId, toId, money);
     }
 
+    /**
+     * 계좌이체 - 두 회원을 member_id 순서로 잠그고(select ... for update) 수정
+     * 반대 방향 이체가 동시에 실행돼도 같은 순서로 잠그므로 데드락 X
+     * 자기 자신에게 이체하면 같은 잔액으로 두 번 수정해서 돈이 생기므로 IllegalArgumentException
+     */
+    @Transactional
+    public void accountTransferWithLock(String fromId, String toId, int money) throws SQLException {
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("자기 자신에게 이체할 수 없음 memberId=" + fromId);
+        }
+        Member fromMember;
+        Member toMember;
+        if (fromId.compareTo(toId) < 0) {
+            fromMember = memberRepository.findByIdForUpdate(fromId);
+            toMember = memberRepository.findByIdForUpdate(toId);
+        } else {
+            toMember = memberRepository.findByIdForUpdate(toId);
+            fromMember = memberRepository.findByIdForUpdate(fromId);
+        }
+
+        memberRepository.update(fromId, fromMember.getMoney() - money);
+        validation(toMember);
+        memberRepository.update(toId, toMember.getMoney() + money);
+    }
+
     private void bizLogic(String fromId, String toId, int money) throws SQLException {
         Member formMember = memberRepository.findById(fromId);
         Member toMember = memberRepository.findById(toId);
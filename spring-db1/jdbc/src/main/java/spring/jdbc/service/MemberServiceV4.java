@@ -4,8 +4,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
 import spring.jdbc.domain.Member;
+import spring.jdbc.domain.Transfer;
 import spring.jdbc.repository.MemberRepository;
 
+import java.util.*;
+
 /**
  * 예외 누수 문제 해결
  * SQLException 제거
@@ -18,23 +21,134 @@ public class MemberServiceV4 {
 
     private final MemberRepository memberRepository;
 
+    /**
+     * 계좌이체 - 조회 후 계산해서 수정
+     * version 을 사용하는 저장소(MemberRepositoryV5 versioned)면 동시 수정 시 OptimisticLockingFailureException
+     * -> ConcurrencyRetryTemplate 으로 감싸서 호출하면 새 트랜잭션으로 다시 실행
+     */
     @Transactional
     public void accountTransfer(String fromId, String toId, int money) {
         bizLogic(fromId, toId, money);
     }
 
+    /**
+     * 계좌이체 - 비관적 락 (select ... for update)
+     * - 두 회원을 항상 member_id 순서로 잠금 -> A->B, B->A 이체가 동시에 실행돼도 서로 상대가 잡은 행을 기다리는 데드락 X
+     * - 잠근 뒤에는 커밋할 때까지 다른 트랜잭션이 수정할 수 없으므로 재시도 필요 없음
+     * - 잠금 대기 시간(저장소 setLockTimeout)을 넘으면 CannotAcquireLockException -> 롤백
+     * - 자기 자신에게 이체하면 같은 잔액으로 두 번 수정해서 돈이 생기므로 IllegalArgumentException
+     */
+    @Transactional
+    public void accountTransferWithLock(String fromId, String toId, int money) {
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("자기 자신에게 이체할 수 없음 memberId=" + fromId);
+        }
+        Member fromMember;
+        Member toMember;
+        if (fromId.compareTo(toId) < 0) {
+            fromMember = memberRepository.findByIdForUpdate(fromId);
+            toMember = memberRepository.findByIdForUpdate(toId);
+        } else {
+            toMember = memberRepository.findByIdForUpdate(toId);
+            fromMember = memberRepository.findByIdForUpdate(fromId);
+        }
+
+        memberRepository.update(fromId, fromMember.getMoney() - money);
+        validation(toId);
+        memberRepository.update(toId, toMember.getMoney() + money);
+    }
+
+    /**
+     * 계좌이체 - 잔액을 조회하지 않고 DB 에서 바로 더하고 뺌 (addMoney)
+     * - 동시에 이체해도 수정이 사라지지 않음 (읽고-계산하고-쓰는 사이에 끼어들 틈이 없음)
+     * - 쿼리 4번 -> 2번
+     * - 두 행을 항상 member_id 순서로 수정(잠금)해서 반대 방향 이체가 동시에 실행돼도 데드락 X
+     * - 한 JVM 이 회원을 혼자 수정하면 AccountLockManager 로 감싸서 호출 -> 같은 회원 이체는 JVM 안에서 대기, DB 잠금 대기 X
+     */
+    @Transactional
+    public void accountTransferAtomic(String fromId, String toId, int money) {
+        if (fromId.compareTo(toId) < 0) {
+            withdraw(fromId, money);
+            validation(toId);
+            deposit(toId, money);
+        } else {
+            deposit(toId, money);
+            validation(toId);
+            withdraw(fromId, money);
+        }
+    }
+
+    private void withdraw(String memberId, int money) {
+        if (!memberRepository.addMoney(memberId, -money)) {
+            throw new IllegalStateException("잔액 부족 또는 회원 없음 memberId=" + memberId);
+        }
+    }
+
+    private void deposit(String memberId, int money) {
+        if (!memberRepository.addMoney(memberId, money)) {
+            throw new NoSuchElementException("member not found memberId=" + memberId);
+        }
+    }
+
+    /**
+     * 여러 건의 계좌이체를 한 트랜잭션으로 처리 (전부 성공 또는 전부 롤백)
+     * - 관련 회원 전체를 IN 쿼리 한 번으로 조회 + member_id 순서로 행 잠금 (데드락 방지)
+     * - 앞의 이체까지 반영한 잔액보다 큰 금액을 보내면 잔액 부족 예외 (accountTransferAtomic 과 같은 기준)
+     * - 잔액 변경은 메모리에서 계산하고 바뀐 회원만 JDBC 배치 한 번으로 저장
+     * - 건마다 findById 2번 + update 2번 하던 것을 쿼리 2번으로 줄임
+     * - 많은 건수는 TransferJob 으로 나눠서 호출 (청크 단위 트랜잭션)
+     */
+    @Transactional
+    public void transferAll(List<Transfer> transfers) {
+        Set<String> memberIds = new HashSet<>();
+        for (Transfer transfer : transfers) {
+            memberIds.add(transfer.getFromId());
+            memberIds.add(transfer.getToId());
+        }
+
+        Map<String, Member> members = new LinkedHashMap<>();  //member_id 순서 유지
+        for (Member member : memberRepository.findAllByIdForUpdate(memberIds)) {
+            members.put(member.getMemberId(), member);
+        }
+
+        for (Transfer transfer : transfers) {
+            Member fromMember = getMember(members, transfer.getFromId());
+            Member toMember = getMember(members, transfer.getToId());
+
+            if (fromMember.getMoney() < transfer.getMoney()) {
+                throw new IllegalStateException("잔액 부족 memberId=" + fromMember.getMemberId());
+            }
+            fromMember.setMoney(fromMember.getMoney() - transfer.getMoney());
+            validation(toMember.getMemberId());
+            toMember.setMoney(toMember.getMoney() + transfer.getMoney());
+        }
+
+        memberRepository.updateAll(new ArrayList<>(members.values()));
+    }
+
+    private Member getMember(Map<String, Member> members, String memberId) {
+        Member member = members.get(memberId);
+        if (member == null) {
+            throw new NoSuchElementException("member not found memberId=" + memberId);
+        }
+        return member;
+    }
+
     private void bizLogic(String fromId, String toId, int money) {
         Member formMember = memberRepository.findById(fromId);
         Member toMember = memberRepository.findById(toId);
 
-        memberRepository.update(fromId, formMember.getMoney() - money);  //트랜잭션 없으면 기본적으로 자동 커밋
-        validation(toMember);
-        memberRepository.update(toId, formMember.getMoney() + money);
+        //조회한 회원 기준으로 수정 -> version 을 사용하는 저장소면 그 사이 다른 수정이 있었을 때 예외 (낙관적 락)
+        formMember.setMoney(formMember.getMoney() - money);
+        memberRepository.update(formMember);  //트랜잭션 없으면 기본적으로 자동 커밋
+        validation(toMember.getMemberId());
+        toMember.setMoney(toMember.getMoney() + money);
+        memberRepository.update(toMember);
     }
 
-    private void validation(Member toMember) {
+    private void validation(String toId) {
         //예외 상황을 테스트해보기 위해 toId가 "ex"인 경우 예외를 발생
-        if (toMember.getMemberId().equals("ex")) {
+        if (toId.equals("ex")) {
             throw new IllegalStateException("이체중 예외 발생");
         }
     }
@@ -0,0 +1,41 @@
+package spring.jdbc.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import spring.jdbc.domain.Transfer;
+
+import java.util.List;
+
+/**
+ * 대량 계좌이체 (정산 배치)
+ * - chunkSize 건씩 나눠서 MemberServiceV4.transferAll 호출 -> 청크마다 별도 트랜잭션
+ * - 한 청크 안에서는 전부 성공 또는 전부 롤백, 앞에서 커밋된 청크는 유지
+ * - 실패한 청크에서 예외를 그대로 던지고 중단 (이후 청크는 실행하지 않음)
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TransferJob {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final MemberServiceV4 memberService;  //트랜잭션 프록시
+    private final int chunkSize;
+
+    public TransferJob(MemberServiceV4 memberService) {
+        this(memberService, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @return 커밋된 이체 건수
+     */
+    public int run(List<Transfer> transfers) {
+        int committed = 0;
+        for (int from = 0; from < transfers.size(); from += chunkSize) {
+            List<Transfer> chunk = transfers.subList(from, Math.min(from + chunkSize, transfers.size()));
+            memberService.transferAll(chunk);
+            committed += chunk.size();
+            log.info("transfer committed={}/{}", committed, transfers.size());
+        }
+        return committed;
+    }
+}
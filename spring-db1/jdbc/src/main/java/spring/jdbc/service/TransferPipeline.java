@@ -0,0 +1,275 @@
+package spring.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.jdbc.domain.Transfer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 그룹 커밋 계좌이체 - 여러 호출자의 이체를 모아서 한 트랜잭션으로 커밋
+ * - 호출마다 트랜잭션을 커밋하면 커밋(디스크 동기화, DB 왕복) 비용이 처리량을 결정함
+ * - submit() 은 이체를 큐에 넣고 바로 CompletableFuture 반환, 커밋이 끝나면 완료
+ * - 커미터 스레드가 최대 maxBatchSize 건 또는 첫 이체부터 maxWaitMillis 까지 모아서 한 트랜잭션으로 처리
+ *   -> 처리량은 늘고 지연은 최대 maxWaitMillis + 배치 처리 시간만큼 늘어남
+ *
+ * 배치 처리
+ * - 먼저 배치 전체를 transferAll 로 실행 (IN 쿼리 한 번으로 잠금 + JDBC 배치 수정 한 번) -> 이체 수와 관계없이 DB 왕복 몇 번
+ * - 실패한 이체가 있으면 배치 전체를 롤백하고, 이체마다 세이브포인트(PROPAGATION_NESTED)에서 accountTransferAtomic 으로 다시 실행
+ *   잔액 부족 등으로 실패하면 그 이체만 세이브포인트까지 롤백하고 future 를 예외로 완료, 나머지는 커밋
+ *   (세이브포인트는 이체마다 DB 왕복이 늘어나므로 실패가 있는 배치에서만 사용)
+ * - 커밋 자체가 실패하면 배치를 반으로 나눠서 다시 실행 (1건까지 나누면 그 이체만 실패)
+ *
+ * 큐가 가득 차면 submit() 이 자리가 날 때까지 대기 (호출자 속도 조절)
+ * 커미터 스레드가 예상하지 못한 예외(Error 포함)로 멈추면 처리 중/대기 중인 future 를 모두 그 예외로 완료하고, 이후 submit() 은 거부
+ * future 의 콜백은 커미터 스레드에서 실행되므로 오래 걸리는 작업은 thenXxxAsync 로 다른 스레드에서 실행
+ * 사용이 끝나면 close() - 큐에 남은 이체까지 커밋하고 커미터 스레드 종료
+ */
+@Slf4j
+public class TransferPipeline implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 2;
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    private final MemberServiceV4 memberService;
+    private final TransactionTemplate txTemplate;
+    private final TransactionTemplate savepointTemplate;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Request> queue;
+    private final Thread committer;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private volatile boolean closed;
+    private volatile Throwable failure;  //커미터 스레드를 멈추게 한 예외
+
+    public TransferPipeline(MemberServiceV4 memberService, PlatformTransactionManager transactionManager) {
+        this(memberService, transactionManager, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_WAIT_MILLIS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public TransferPipeline(MemberServiceV4 memberService, PlatformTransactionManager transactionManager,
+                            int maxBatchSize, long maxWaitMillis, int queueCapacity) {
+        this.memberService = memberService;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.committer = new Thread(this::run, "transfer-committer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * 이체 요청, 커밋되면 완료 / 실패하면 그 예외로 완료
+     */
+    public CompletableFuture<Void> submit(Transfer transfer) {
+        if (closed) {
+            throw new IllegalStateException("transfer pipeline closed");
+        }
+        if (failure != null) {
+            throw new IllegalStateException("transfer pipeline failed", failure);
+        }
+        Request request = new Request(transfer);
+        try {
+            queue.put(request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            request.future.completeExceptionally(e);
+            return request.future;
+        }
+        if (closed && !committer.isAlive() && queue.remove(request)) {
+            //close() 와 동시에 들어와서 커미터가 처리하지 못한 요청
+            request.future.completeExceptionally(new IllegalStateException("transfer pipeline closed"));
+        }
+        if (failure != null && queue.remove(request)) {
+            //커미터가 멈추면서 큐를 비운 뒤에 들어온 요청
+            request.future.completeExceptionally(new IllegalStateException("transfer pipeline failed", failure));
+        }
+        return request.future;
+    }
+
+    /**
+     * 새 요청을 받지 않고, 큐에 남은 이체를 모두 커밋한 뒤 커미터 스레드 종료
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Request request;
+        while ((request = queue.poll()) != null) {
+            request.future.completeExceptionally(new IllegalStateException("transfer pipeline closed"));
+        }
+    }
+
+    /**
+     * 커밋한 트랜잭션 수
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * 커밋된 이체 수 (실패한 이체 제외)
+     */
+    public long getCommittedCount() {
+        return committed.sum();
+    }
+
+    private void run() {
+        List<Request> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Request first = queue.poll(100, TimeUnit.MILLISECONDS);  //close() 를 확인하기 위해 주기적으로 깨어남
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, System.nanoTime() + maxWaitNanos);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, e);
+                return;
+            } catch (Throwable e) {
+                log.error("transfer committer failed", e);
+                fail(batch, e);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 커미터 종료 - 처리 중인 배치와 큐에 남은 요청을 모두 예외로 완료 (이미 완료된 future 는 그대로)
+     * failure 를 먼저 기록해야 submit() 이 큐를 비운 뒤에 들어온 요청을 직접 실패시킬 수 있음
+     */
+    private void fail(List<Request> batch, Throwable cause) {
+        failure = cause;
+        for (Request request : batch) {
+            request.future.completeExceptionally(cause);
+        }
+        Request request;
+        while ((request = queue.poll()) != null) {
+            request.future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * 최대 maxBatchSize 건 또는 deadline 까지 모으기
+     */
+    private void collect(List<Request> batch, long deadline) throws InterruptedException {
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());  //이미 쌓인 요청은 기다리지 않고 가져옴
+            if (batch.size() >= maxBatchSize) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Request next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<Request> batch) {
+        if (!commitAll(batch)) {
+            commitEach(batch);
+        }
+    }
+
+    /**
+     * 배치 전체를 transferAll 한 번으로 실행, 실패하면 롤백하고 false
+     */
+    private boolean commitAll(List<Request> batch) {
+        List<Transfer> transfers = new ArrayList<>(batch.size());
+        for (Request request : batch) {
+            transfers.add(request.transfer);
+        }
+        try {
+            txTemplate.executeWithoutResult(status -> memberService.transferAll(transfers));
+        } catch (RuntimeException e) {
+            log.debug("transfer batch failed, retry with savepoints size={}, cause={}", batch.size(), e.toString());
+            return false;
+        }
+
+        batches.increment();
+        committed.add(batch.size());
+        for (Request request : batch) {
+            request.future.complete(null);
+        }
+        return true;
+    }
+
+    /**
+     * 이체마다 세이브포인트 - 실패한 이체만 롤백하고 나머지 커밋
+     */
+    private void commitEach(List<Request> batch) {
+        try {
+            txTemplate.executeWithoutResult(status -> {
+                for (Request request : batch) {
+                    request.failure = null;
+                    try {
+                        savepointTemplate.executeWithoutResult(savepoint -> apply(request.transfer));
+                    } catch (TransactionException e) {
+                        throw e;  //세이브포인트 생성/롤백 실패 -> 배치 전체 실패
+                    } catch (RuntimeException e) {
+                        request.failure = e;  //이 이체만 세이브포인트까지 롤백됨, 다음 이체 계속
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            int half = batch.size() / 2;
+            log.info("transfer batch failed, split size={}, cause={}", batch.size(), e.toString());
+            commitEach(batch.subList(0, half));
+            commitEach(batch.subList(half, batch.size()));
+            return;
+        }
+
+        batches.increment();
+        for (Request request : batch) {
+            if (request.failure == null) {
+                committed.increment();
+                request.future.complete(null);
+            } else {
+                request.future.completeExceptionally(request.failure);
+            }
+        }
+    }
+
+    private void apply(Transfer transfer) {
+        memberService.accountTransferAtomic(transfer.getFromId(), transfer.getToId(), transfer.getMoney());
+    }
+
+    private static class Request {
+
+        private final Transfer transfer;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private RuntimeException failure;  //커미터 스레드에서만 사용
+
+        Request(Transfer transfer) {
+            this.transfer = transfer;
+        }
+    }
+}
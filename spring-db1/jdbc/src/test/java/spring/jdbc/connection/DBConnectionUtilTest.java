@@ -14,6 +14,30 @@ class DBConnectionUtilTest {
     void connection() throws SQLException {
         Connection connection = DBConnectionUtil.getConnection();
         Assertions.assertThat(connection).isNotNull();
+        connection.close();  //풀에 반환
+    }
+
+    //close 한 커넥션은 풀에 반환되어 다음 getConnection 에서 같은 물리 커넥션을 다시 사용
+    @Test
+    void pooledConnectionReused() throws SQLException {
+        Connection con1 = DBConnectionUtil.getConnection();
+        Connection physical1 = con1.unwrap(Connection.class);
+        con1.close();
+
+        Connection con2 = DBConnectionUtil.getConnection();
+        Connection physical2 = con2.unwrap(Connection.class);
+        con2.close();
+
+        Assertions.assertThat(physical2).isSameAs(physical1);
+        Assertions.assertThat(DBConnectionUtil.poolMetrics().getActiveConnections()).isZero();
+    }
+
+    @Test
+    void warmUp() throws SQLException {
+        DBConnectionUtil.warmUp();
+        log.info("pool={}", DBConnectionUtil.poolStats());
+        Assertions.assertThat(DBConnectionUtil.poolMetrics().getTotalConnections())
+                .isEqualTo(DBConnectionUtil.MAXIMUM_POOL_SIZE);
     }
 
 }
\ No newline at end of file
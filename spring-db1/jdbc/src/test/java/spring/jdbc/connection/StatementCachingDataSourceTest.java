@@ -0,0 +1,164 @@
+package spring.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import spring.jdbc.domain.Member;
+import spring.jdbc.repository.MemberRepositoryV3;
+import spring.jdbc.service.MemberServiceV3_1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static spring.jdbc.connection.ConnectionConst.*;
+
+/**
+ * PreparedStatement 캐시 - Hikari 풀 아래에 StatementCachingDataSource
+ */
+class StatementCachingDataSourceTest {
+
+    static final String SQL = "select * from member where member_id = ?";
+    static final String LIST_SQL = "select * from member where member_id in ('memberA', 'ex') order by member_id";
+
+    StatementCachingDataSource cachingDataSource;
+    HikariDataSource dataSource;
+    MemberRepositoryV3 memberRepository;
+
+    @BeforeEach
+    void before() {
+        cachingDataSource = new StatementCachingDataSource(new DriverManagerDataSource(URL, USERNAME, PASSWORD), 2);
+        dataSource = new HikariDataSource();
+        dataSource.setDataSource(cachingDataSource);
+        dataSource.setMaximumPoolSize(1);  //항상 같은 물리 커넥션
+        dataSource.setPoolName("StatementCachePool");
+        memberRepository = new MemberRepositoryV3(dataSource);
+    }
+
+    @AfterEach
+    void after() throws SQLException {
+        memberRepository.delete("memberA");
+        memberRepository.delete("ex");
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("풀에 반환했다가 다시 받은 커넥션에서도 같은 statement 재사용")
+    void reuseAcrossPooledConnections() throws SQLException {
+        PreparedStatement first;
+        try (Connection con = dataSource.getConnection(); PreparedStatement pstmt = con.prepareStatement(SQL)) {
+            first = pstmt.unwrap(PreparedStatement.class);
+        }
+        try (Connection con = dataSource.getConnection(); PreparedStatement pstmt = con.prepareStatement(SQL)) {
+            assertThat(pstmt.unwrap(PreparedStatement.class)).isSameAs(first);
+            assertThat(first.isClosed()).isFalse();
+        }
+        assertThat(cachingDataSource.getHitCount()).isEqualTo(1);
+        assertThat(cachingDataSource.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("같은 SQL 을 동시에 열면 캐시하지 않는 statement 를 따로 만듦")
+    void sameSqlInUse() throws SQLException {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement pstmt1 = con.prepareStatement(SQL);
+             PreparedStatement pstmt2 = con.prepareStatement(SQL)) {
+            assertThat(pstmt2.unwrap(PreparedStatement.class)).isNotSameAs(pstmt1.unwrap(PreparedStatement.class));
+        }
+        assertThat(cachingDataSource.getHitCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("캐시 크기를 넘으면 오래 사용하지 않은 statement 를 닫음")
+    void evictLeastRecentlyUsed() throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            PreparedStatement first;
+            try (PreparedStatement pstmt = con.prepareStatement(SQL)) {
+                first = pstmt.unwrap(PreparedStatement.class);
+            }
+            con.prepareStatement("select 1").close();
+            con.prepareStatement("select 2").close();  //캐시 크기 2 -> SQL 제거
+
+            assertThat(first.isClosed()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("반환할 때 열린 ResultSet 을 닫고 바꾼 설정을 되돌림 - 다음 사용자의 결과가 잘리지 않음")
+    void resetOnRelease() throws SQLException {
+        //given
+        memberRepository.save(new Member("memberA", 10000));
+        memberRepository.save(new Member("ex", 10000));
+
+        try (Connection con = dataSource.getConnection()) {
+            PreparedStatement first;
+            ResultSet firstResult;
+            try (PreparedStatement pstmt = con.prepareStatement(LIST_SQL)) {
+                first = pstmt.unwrap(PreparedStatement.class);
+                pstmt.setMaxRows(1);
+                pstmt.setFetchSize(1);
+                pstmt.setQueryTimeout(5);
+                firstResult = pstmt.executeQuery();
+                firstResult.next();  //다 읽지 않고 반환
+            }
+            assertThat(firstResult.isClosed()).isTrue();
+
+            //when: 같은 SQL 을 다시 사용
+            try (PreparedStatement pstmt = con.prepareStatement(LIST_SQL); ResultSet rs = pstmt.executeQuery()) {
+                //then: 같은 statement, prepare 시점 설정
+                assertThat(pstmt.unwrap(PreparedStatement.class)).isSameAs(first);
+                assertThat(pstmt.getMaxRows()).isZero();
+                assertThat(pstmt.getQueryTimeout()).isZero();
+                int count = 0;
+                while (rs.next()) {
+                    count++;
+                }
+                assertThat(count).isEqualTo(2);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("되돌릴 수 없는 설정을 바꾼 statement 는 캐시하지 않음")
+    void discardUnrestorableSettings() throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            PreparedStatement first;
+            try (PreparedStatement pstmt = con.prepareStatement(SQL)) {
+                pstmt.setEscapeProcessing(false);
+                first = pstmt.unwrap(PreparedStatement.class);
+            }
+            assertThat(first.isClosed()).isTrue();
+
+            try (PreparedStatement pstmt = con.prepareStatement(SQL)) {
+                assertThat(pstmt.unwrap(PreparedStatement.class)).isNotSameAs(first);
+            }
+        }
+        assertThat(cachingDataSource.getHitCount()).isZero();
+        assertThat(cachingDataSource.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("트랜잭션 동기화 - 캐시된 statement 를 사용해도 롤백")
+    void rollbackWithCachedStatements() throws SQLException {
+        //given
+        MemberServiceV3_1 memberService = new MemberServiceV3_1(new DataSourceTransactionManager(dataSource), memberRepository);
+        memberRepository.save(new Member("memberA", 10000));
+        memberRepository.save(new Member("ex", 10000));
+
+        //when
+        assertThatThrownBy(() -> memberService.accountTransfer("memberA", "ex", 2000))
+                .isInstanceOf(IllegalStateException.class);
+
+        //then
+        assertThat(memberRepository.findById("memberA").getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById("ex").getMoney()).isEqualTo(10000);
+        assertThat(cachingDataSource.getHitCount()).isPositive();
+    }
+}
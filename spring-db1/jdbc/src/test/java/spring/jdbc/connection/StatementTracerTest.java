@@ -0,0 +1,123 @@
+package spring.jdbc.connection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import spring.jdbc.domain.Member;
+import spring.jdbc.repository.MemberRepositoryV3;
+import spring.jdbc.service.MemberServiceV3_1;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static spring.jdbc.connection.ConnectionConst.*;
+
+/**
+ * SQL 실행 추적 - 샘플링, 바인딩 수 / 행 수 기록
+ */
+class StatementTracerTest {
+
+    DriverManagerDataSource target = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+    List<StatementTrace> traces = new CopyOnWriteArrayList<>();
+    MemberRepositoryV3 cleanup = new MemberRepositoryV3(target);
+
+    @AfterEach
+    void after() throws SQLException {
+        cleanup.delete("memberA");
+        cleanup.delete("memberB");
+    }
+
+    @Test
+    @DisplayName("꺼져 있으면 커넥션을 감싸지 않음")
+    void disabled() throws SQLException {
+        StatementTracer tracer = new StatementTracer(0, traces::add);
+        try (Connection con = target.getConnection()) {
+            assertThat(tracer.trace(con)).isSameAs(con);
+        }
+    }
+
+    @Test
+    @DisplayName("수정 / 조회 / 배치 - SQL, 바인딩 수, 행 수 기록")
+    void traceStatements() throws SQLException {
+        StatementTracer tracer = new StatementTracer(1, traces::add);
+        try (Connection con = tracer.trace(target.getConnection())) {
+            try (PreparedStatement pstmt = con.prepareStatement("insert into member(member_id, money) values(?, ?)")) {
+                pstmt.setString(1, "memberA");
+                pstmt.setInt(2, 10000);
+                pstmt.addBatch();
+                pstmt.setString(1, "memberB");
+                pstmt.setInt(2, 10000);
+                pstmt.addBatch();
+                pstmt.executeBatch();
+            }
+            try (PreparedStatement pstmt = con.prepareStatement("select * from member where member_id in (?, ?)")) {
+                pstmt.setString(1, "memberA");
+                pstmt.setString(2, "memberB");
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                    }
+                }
+            }
+            try (PreparedStatement pstmt = con.prepareStatement("update member set money=? where member_id=?")) {
+                pstmt.setInt(1, 5000);
+                pstmt.setString(2, "memberA");
+                pstmt.executeUpdate();
+            }
+        }
+
+        assertThat(traces).hasSize(3);
+        assertThat(traces.get(0).getBatchSize()).isEqualTo(2);
+        assertThat(traces.get(0).getRows()).isEqualTo(2);
+        assertThat(traces.get(1).getSql()).startsWith("select");
+        assertThat(traces.get(1).getBinds()).isEqualTo(2);
+        assertThat(traces.get(1).getRows()).isEqualTo(2);  //ResultSet 을 닫을 때 기록
+        assertThat(traces.get(2).getRows()).isEqualTo(1);
+        assertThat(traces.get(2).getElapsedNanos()).isPositive();
+    }
+
+    @Test
+    @DisplayName("샘플링 - 추적하지 않는 statement 는 드라이버 것을 그대로 반환")
+    void sampling() throws SQLException {
+        StatementTracer tracer = new StatementTracer(0.2, traces::add);
+        int proxies = 0;
+        try (Connection con = tracer.trace(target.getConnection())) {
+            for (int i = 0; i < 1000; i++) {
+                try (PreparedStatement pstmt = con.prepareStatement("select 1")) {
+                    if (Proxy.isProxyClass(pstmt.getClass())) {
+                        proxies++;
+                    }
+                    pstmt.executeQuery().close();
+                }
+            }
+        }
+        assertThat(proxies).isBetween(100, 300);
+        assertThat(traces).hasSize(proxies);
+    }
+
+    @Test
+    @DisplayName("트랜잭션 동기화 - 트랜잭션 매니저와 저장소가 같은 StatementTraceDataSource 사용, 같은 커넥션에서 실행")
+    void traceInTransaction() throws SQLException {
+        StatementTraceDataSource dataSource = new StatementTraceDataSource(target, new StatementTracer(1, traces::add));
+        MemberRepositoryV3 memberRepository = new MemberRepositoryV3(dataSource);
+        MemberServiceV3_1 memberService = new MemberServiceV3_1(new DataSourceTransactionManager(dataSource), memberRepository);
+        memberRepository.save(new Member("memberA", 10000));
+        memberRepository.save(new Member("memberB", 10000));
+        traces.clear();
+
+        //when
+        memberService.accountTransfer("memberA", "memberB", 2000);
+
+        //then: 조회 2, 수정 2 모두 같은 커넥션
+        assertThat(traces).hasSize(4);
+        assertThat(traces).extracting(StatementTrace::getConnection).containsOnly(traces.get(0).getConnection());
+        assertThat(memberRepository.findById("memberB").getMoney()).isEqualTo(12000);
+    }
+}
@@ -0,0 +1,112 @@
+package spring.jdbc.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 스트라이프 락 - DB 없이 잠금 동작만 확인
+ */
+class AccountLockManagerTest {
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("스트라이프 수는 2의 거듭제곱으로 올림")
+    void stripeCount() {
+        assertThat(new AccountLockManager(1).getStripeCount()).isEqualTo(1);
+        assertThat(new AccountLockManager(5).getStripeCount()).isEqualTo(8);
+        assertThat(new AccountLockManager(64).getStripeCount()).isEqualTo(64);
+    }
+
+    @Test
+    @DisplayName("반대 방향 이체도 같은 스트라이프를 기다림")
+    void oppositeDirectionWaits() throws Exception {
+        AccountLockManager lockManager = new AccountLockManager(16);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> holder = executor.submit(() ->
+                lockManager.executeWithoutResult("memberA", "memberB", () -> {
+                    locked.countDown();
+                    awaitQuietly(release);
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        //when: B -> A
+        Future<?> waiter = executor.submit(() -> lockManager.executeWithoutResult("memberB", "memberA", () -> {}));
+
+        //then: 먼저 잡은 쪽이 끝날 때까지 대기
+        assertThat(waitUntilDone(waiter, 200)).isFalse();
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        waiter.get(10, TimeUnit.SECONDS);
+        assertThat(lockManager.getContendedCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("다른 스트라이프의 이체는 기다리지 않음")
+    void differentStripesRunInParallel() throws Exception {
+        AccountLockManager lockManager = new AccountLockManager(16);
+        String[] others = findOtherStripeMembers(lockManager, "memberA", "memberB");
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> holder = executor.submit(() ->
+                lockManager.executeWithoutResult("memberA", "memberB", () -> {
+                    locked.countDown();
+                    awaitQuietly(release);
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        //when
+        Future<?> other = executor.submit(() -> lockManager.executeWithoutResult(others[0], others[1], () -> {}));
+
+        //then
+        assertThat(waitUntilDone(other, 5000)).isTrue();
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        assertThat(lockManager.getContendedCount()).isZero();
+    }
+
+    private String[] findOtherStripeMembers(AccountLockManager lockManager, String memberId1, String memberId2) {
+        int stripe1 = lockManager.stripeIndex(memberId1);
+        int stripe2 = lockManager.stripeIndex(memberId2);
+        String[] found = new String[2];
+        int count = 0;
+        for (int i = 0; count < 2; i++) {
+            String memberId = "member" + i;
+            int stripe = lockManager.stripeIndex(memberId);
+            if (stripe != stripe1 && stripe != stripe2) {
+                found[count++] = memberId;
+            }
+        }
+        return found;
+    }
+
+    private boolean waitUntilDone(Future<?> future, long millis) throws Exception {
+        try {
+            future.get(millis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -99,6 +99,35 @@ class MemberServiceV3_3Test {
         assertThat(findMemberB.getMoney()).isEqualTo(12000);
     }
 
+    @Test
+    @DisplayName("정상 이체 - member_id 순서로 행 잠금")
+    void accountTransferWithLock() throws SQLException {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        //when: B -> A 는 A 를 먼저 잠금
+        memberService.accountTransferWithLock(MEMBER_B, MEMBER_A, 2000);
+
+        //then
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(12000);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(8000);
+    }
+
+    @Test
+    @DisplayName("자기 자신에게 이체 - 행 잠금")
+    void accountTransferWithLockSelf() throws SQLException {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+
+        //when
+        assertThatThrownBy(() -> memberService.accountTransferWithLock(MEMBER_A, MEMBER_A, 2000))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        //then
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+    }
+
     @Test
     @DisplayName("이체중 예외 발생")
     void accountTransferEx() throws SQLException {
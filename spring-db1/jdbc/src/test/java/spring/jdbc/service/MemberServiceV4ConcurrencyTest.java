@@ -0,0 +1,254 @@
+package spring.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.jdbc.domain.Member;
+import spring.jdbc.repository.MemberRepository;
+import spring.jdbc.repository.MemberRepositoryV5;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 동시 이체 스트레스 테스트 - accountTransferAtomic, accountTransferWithLock, AccountLockManager
+ * 여러 스레드가 같은 회원들 사이에서 임의로 이체해도 전체 잔액 합계가 유지되어야 함 (lost update X)
+ */
+@Slf4j
+@SpringBootTest
+class MemberServiceV4ConcurrencyTest {
+
+    static final int MEMBER_COUNT = 5;
+    static final int INITIAL_MONEY = 10000;
+    static final int THREAD_COUNT = 8;
+    static final int TRANSFER_PER_THREAD = 200;
+    static final Duration LOCK_TIMEOUT = Duration.ofMillis(500);
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberServiceV4 memberService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class TestConfig {
+
+        private final DataSource dataSource;
+
+        public TestConfig(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Bean
+        MemberRepository memberRepository() {
+            MemberRepositoryV5 memberRepository = new MemberRepositoryV5(dataSource);
+            memberRepository.setLockTimeout(LOCK_TIMEOUT);
+            return memberRepository;
+        }
+        @Bean
+        MemberServiceV4 memberServiceV4() {
+            return new MemberServiceV4(memberRepository());
+        }
+    }
+
+    @BeforeEach
+    void before() {
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            memberRepository.save(new Member(memberId(i), INITIAL_MONEY));
+        }
+    }
+
+    @AfterEach
+    void after() {
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            memberRepository.delete(memberId(i));
+        }
+    }
+
+    @Test
+    @DisplayName("동시 이체 - 잔액 합계 유지, 음수 잔액 없음")
+    void concurrentTransfer() throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();  //잔액 부족
+
+        //when
+        long start = System.nanoTime();
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < TRANSFER_PER_THREAD; i++) {
+                int from = random.nextInt(MEMBER_COUNT);
+                int to = (from + 1 + random.nextInt(MEMBER_COUNT - 1)) % MEMBER_COUNT;
+                try {
+                    memberService.accountTransferAtomic(memberId(from), memberId(to), random.nextInt(1, 3000));
+                    succeeded.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("transfers={}, succeeded={}, rejected={}, elapsed={}ms, throughput={}/s",
+                THREAD_COUNT * TRANSFER_PER_THREAD, succeeded.get(), rejected.get(), elapsedMillis,
+                THREAD_COUNT * TRANSFER_PER_THREAD * 1000L / Math.max(elapsedMillis, 1));
+
+        //then
+        int total = 0;
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            int money = memberRepository.findById(memberId(i)).getMoney();
+            assertThat(money).isGreaterThanOrEqualTo(0);
+            total += money;
+        }
+        assertThat(total).isEqualTo(MEMBER_COUNT * INITIAL_MONEY);
+        assertThat(succeeded.get() + rejected.get()).isEqualTo(THREAD_COUNT * TRANSFER_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("동시 이체 - 행 잠금, 반대 방향 이체가 섞여도 데드락 없이 잔액 합계 유지")
+    void concurrentTransferWithLock() throws Exception {
+        //when: 잠금 순서를 정하지 않으면 A->B, B->A 가 서로 상대 행을 기다리다 데드락 또는 잠금 대기 시간 초과
+        long start = System.nanoTime();
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < TRANSFER_PER_THREAD; i++) {
+                int from = random.nextInt(MEMBER_COUNT);
+                int to = (from + 1 + random.nextInt(MEMBER_COUNT - 1)) % MEMBER_COUNT;
+                memberService.accountTransferWithLock(memberId(from), memberId(to), random.nextInt(1, 100));
+            }
+        });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("transfers={}, elapsed={}ms, throughput={}/s", THREAD_COUNT * TRANSFER_PER_THREAD, elapsedMillis,
+                THREAD_COUNT * TRANSFER_PER_THREAD * 1000L / Math.max(elapsedMillis, 1));
+
+        //then
+        int total = 0;
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            total += memberRepository.findById(memberId(i)).getMoney();
+        }
+        assertThat(total).isEqualTo(MEMBER_COUNT * INITIAL_MONEY);
+    }
+
+    @Test
+    @DisplayName("동시 이체 - 스트라이프 락으로 감싼 atomic 이체, 잔액 합계 유지")
+    void concurrentTransferWithAccountLock() throws Exception {
+        AccountLockManager lockManager = new AccountLockManager(4);
+        AtomicInteger rejected = new AtomicInteger();
+
+        //when
+        long start = System.nanoTime();
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < TRANSFER_PER_THREAD; i++) {
+                int from = random.nextInt(MEMBER_COUNT);
+                int to = (from + 1 + random.nextInt(MEMBER_COUNT - 1)) % MEMBER_COUNT;
+                try {
+                    lockManager.executeWithoutResult(memberId(from), memberId(to), () ->
+                            memberService.accountTransferAtomic(memberId(from), memberId(to), random.nextInt(1, 3000)));
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("transfers={}, rejected={}, contended={}, elapsed={}ms", THREAD_COUNT * TRANSFER_PER_THREAD,
+                rejected.get(), lockManager.getContendedCount(), elapsedMillis);
+
+        //then
+        int total = 0;
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            int money = memberRepository.findById(memberId(i)).getMoney();
+            assertThat(money).isGreaterThanOrEqualTo(0);
+            total += money;
+        }
+        assertThat(total).isEqualTo(MEMBER_COUNT * INITIAL_MONEY);
+    }
+
+    @Test
+    @DisplayName("잠금 대기 시간 초과 - CannotAcquireLockException, 롤백")
+    void lockTimeout() throws Exception {
+        TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            //다른 트랜잭션이 memberId(1) 을 잠그고 있음
+            Future<?> holder = executor.submit(() -> txTemplate.executeWithoutResult(status -> {
+                memberRepository.findByIdForUpdate(memberId(1));
+                locked.countDown();
+                awaitQuietly(release);
+            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            //when: memberId(0) 을 잠근 뒤 memberId(1) 을 기다리다 시간 초과
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> memberService.accountTransferWithLock(memberId(0), memberId(1), 1000))
+                    .isInstanceOf(CannotAcquireLockException.class);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("lock wait={}ms", elapsedMillis);
+            assertThat(elapsedMillis).isBetween(LOCK_TIMEOUT.toMillis() / 2, LOCK_TIMEOUT.toMillis() * 10);
+
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        //then: 롤백, memberId(0) 의 잠금도 풀려서 바로 이체 가능
+        assertThat(memberRepository.findById(memberId(0)).getMoney()).isEqualTo(INITIAL_MONEY);
+        memberService.accountTransferWithLock(memberId(0), memberId(1), 1000);
+        assertThat(memberRepository.findById(memberId(1)).getMoney()).isEqualTo(INITIAL_MONEY + 1000);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String memberId(int i) {
+        return "stress" + i;
+    }
+
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();  //모든 스레드 동시에 시작
+
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
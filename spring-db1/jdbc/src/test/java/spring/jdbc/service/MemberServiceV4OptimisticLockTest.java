@@ -0,0 +1,189 @@
+package spring.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import spring.jdbc.domain.Member;
+import spring.jdbc.repository.MemberRepository;
+import spring.jdbc.repository.MemberRepositoryV5;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 낙관적 락 (version 컬럼) + 충돌 시 재시도
+ * - 공유 DB(tcp) 스키마를 바꾸지 않도록 메모리 H2 에 version 컬럼이 있는 member 테이블을 만들어 사용
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:optimistic;DB_CLOSE_DELAY=-1")
+class MemberServiceV4OptimisticLockTest {
+
+    static final int MEMBER_COUNT = 3;
+    static final int INITIAL_MONEY = 10000;
+    static final int THREAD_COUNT = 8;
+    static final int TRANSFER_PER_THREAD = 50;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberServiceV4 memberService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class TestConfig {
+
+        private final DataSource dataSource;
+
+        public TestConfig(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Bean
+        MemberRepository memberRepository() {
+            return new MemberRepositoryV5(dataSource, true);  //version 컬럼 사용
+        }
+        @Bean
+        MemberServiceV4 memberServiceV4() {
+            return new MemberServiceV4(memberRepository());
+        }
+    }
+
+    @BeforeEach
+    void before() {
+        new JdbcTemplate(dataSource).execute("create table if not exists member (" +
+                "member_id varchar(10), money integer not null default 0, version bigint default 0 not null, " +
+                "primary key (member_id))");
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            memberRepository.save(new Member(memberId(i), INITIAL_MONEY));
+        }
+    }
+
+    @AfterEach
+    void after() {
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            memberRepository.delete(memberId(i));
+        }
+    }
+
+    @Test
+    @DisplayName("조회 후 다른 곳에서 수정했으면 예외")
+    void staleUpdate() {
+        //given: 같은 회원을 두 번 조회
+        Member member1 = memberRepository.findById(memberId(0));
+        Member member2 = memberRepository.findById(memberId(0));
+
+        //when: 먼저 수정
+        member1.setMoney(9000);
+        memberRepository.update(member1);
+
+        //then: 이전 version 으로 수정 시도
+        member2.setMoney(8000);
+        assertThatThrownBy(() -> memberRepository.update(member2))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        Member findMember = memberRepository.findById(memberId(0));
+        assertThat(findMember.getMoney()).isEqualTo(9000);
+        assertThat(findMember.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("동시 이체 - 충돌하면 재시도, 잔액 합계 유지")
+    void concurrentTransferWithRetry() throws Exception {
+        ConcurrencyRetryTemplate retryTemplate = new ConcurrencyRetryTemplate(30, 5, 100);
+
+        //when
+        long start = System.nanoTime();
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < TRANSFER_PER_THREAD; i++) {
+                int from = random.nextInt(MEMBER_COUNT);
+                int to = (from + 1 + random.nextInt(MEMBER_COUNT - 1)) % MEMBER_COUNT;
+                retryTemplate.executeWithoutResult(() ->
+                        memberService.accountTransfer(memberId(from), memberId(to), 10));
+            }
+        });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("transfers={}, retries={}, elapsed={}ms",
+                THREAD_COUNT * TRANSFER_PER_THREAD, retryTemplate.getRetryCount(), elapsedMillis);
+
+        //then
+        int total = 0;
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            total += memberRepository.findById(memberId(i)).getMoney();
+        }
+        assertThat(total).isEqualTo(MEMBER_COUNT * INITIAL_MONEY);
+    }
+
+    @Test
+    @DisplayName("최대 횟수까지 재시도 후 예외")
+    void giveUpAfterMaxAttempts() {
+        ConcurrencyRetryTemplate retryTemplate = new ConcurrencyRetryTemplate();
+        Member stale = memberRepository.findById(memberId(0));
+        memberRepository.update(memberId(0), 5000);
+
+        //같은 stale 객체로 계속 실패
+        assertThatThrownBy(() -> retryTemplate.executeWithoutResult(() -> memberRepository.update(stale)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(retryTemplate.getRetryCount()).isEqualTo(ConcurrencyRetryTemplate.DEFAULT_MAX_ATTEMPTS - 1);
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서는 재시도하지 않음")
+    void noRetryInsideTransaction() {
+        ConcurrencyRetryTemplate retryTemplate = new ConcurrencyRetryTemplate();
+        Member stale = memberRepository.findById(memberId(0));
+        memberRepository.update(memberId(0), 5000);
+
+        TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
+        assertThatThrownBy(() -> txTemplate.executeWithoutResult(status ->
+                retryTemplate.executeWithoutResult(() -> memberRepository.update(stale))))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(retryTemplate.getRetryCount()).isZero();
+    }
+
+    private String memberId(int i) {
+        return "version" + i;
+    }
+
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();  //모든 스레드 동시에 시작
+
+            for (Future<?> future : futures) {
+                future.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
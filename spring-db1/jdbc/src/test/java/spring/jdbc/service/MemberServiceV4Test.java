@@ -10,12 +10,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import spring.jdbc.domain.Member;
+import spring.jdbc.domain.Transfer;
 import spring.jdbc.repository.MemberRepository;
 import spring.jdbc.repository.MemberRepositoryV4_1;
 import spring.jdbc.repository.MemberRepositoryV4_2;
 import spring.jdbc.repository.MemberRepositoryV5;
 
 import javax.sql.DataSource;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -40,6 +42,9 @@ class MemberServiceV4Test {
     @Autowired
     private MemberServiceV4 memberService;
 
+    @Autowired
+    private TransferJob transferJob;
+
     @TestConfiguration  // 스프링 부트가 자동으로 만들어주는 빈들에 추가로 필요한 스프링 빈들을 등록하고 테스트를 수행할 수 있음
     static class TestConfig {
 
@@ -59,6 +64,10 @@ class MemberServiceV4Test {
         MemberServiceV4 memberServiceV4() {
             return new MemberServiceV4(memberRepository());
         }
+        @Bean
+        TransferJob transferJob() {
+            return new TransferJob(memberServiceV4(), 2);  //2건씩 청크
+        }
     }
 
     /**
@@ -122,4 +131,160 @@ class MemberServiceV4Test {
         assertThat(findMemberB.getMoney()).isEqualTo(10000);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("정상 이체 - member_id 순서로 행 잠금")
+    void accountTransferWithLock() {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        //when: 양방향 모두 (member_id 순서에 따라 잠금 순서가 다름)
+        memberService.accountTransferWithLock(MEMBER_A, MEMBER_B, 2000);
+        memberService.accountTransferWithLock(MEMBER_B, MEMBER_A, 500);
+
+        //then
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(8500);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(11500);
+    }
+
+    @Test
+    @DisplayName("자기 자신에게 이체 - 행 잠금")
+    void accountTransferWithLockSelf() {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+
+        //when
+        assertThatThrownBy(() -> memberService.accountTransferWithLock(MEMBER_A, MEMBER_A, 2000))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        //then
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("이체중 예외 발생 - 행 잠금")
+    void accountTransferWithLockEx() {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+
+        //when
+        assertThatThrownBy(() -> memberService.accountTransferWithLock(MEMBER_A, MEMBER_EX, 2000))
+                .isInstanceOf(IllegalStateException.class);
+
+        //then
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_EX).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("여러 건 이체")
+    void transferAll() {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        //when
+        memberService.transferAll(List.of(
+                new Transfer(MEMBER_A, MEMBER_B, 2000),
+                new Transfer(MEMBER_B, MEMBER_A, 500),
+                new Transfer(MEMBER_A, MEMBER_B, 1000)));
+
+        //then
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(7500);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(12500);
+    }
+
+    @Test
+    @DisplayName("여러 건 이체중 예외 발생 - 전부 롤백")
+    void transferAllEx() {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+
+        //when
+        assertThatThrownBy(() -> memberService.transferAll(List.of(
+                new Transfer(MEMBER_A, MEMBER_B, 2000),
+                new Transfer(MEMBER_A, MEMBER_EX, 1000))))
+                .isInstanceOf(IllegalStateException.class);
+
+        //then: 앞의 이체도 롤백
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_EX).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("청크 단위 트랜잭션 - 실패한 청크만 롤백")
+    void transferJobChunk() {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+
+        //when: 첫 청크(2건) 커밋, 두 번째 청크 실패
+        assertThatThrownBy(() -> transferJob.run(List.of(
+                new Transfer(MEMBER_A, MEMBER_B, 1000),
+                new Transfer(MEMBER_A, MEMBER_B, 1000),
+                new Transfer(MEMBER_A, MEMBER_B, 1000),
+                new Transfer(MEMBER_A, MEMBER_EX, 1000))))
+                .isInstanceOf(IllegalStateException.class);
+
+        //then
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(8000);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(12000);
+        assertThat(memberRepository.findById(MEMBER_EX).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("정상 이체 - DB 에서 바로 더하고 빼기")
+    void accountTransferAtomic() {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        //when: 양방향 모두 (member_id 순서에 따라 수정 순서가 다름)
+        memberService.accountTransferAtomic(MEMBER_A, MEMBER_B, 2000);
+        memberService.accountTransferAtomic(MEMBER_B, MEMBER_A, 500);
+
+        //then
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(8500);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(11500);
+    }
+
+    @Test
+    @DisplayName("잔액 부족 - 수정하지 않고 예외")
+    void accountTransferAtomicInsufficient() {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 1000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+
+        //when
+        assertThatThrownBy(() -> memberService.accountTransferAtomic(MEMBER_A, MEMBER_B, 2000))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> memberService.accountTransferAtomic(MEMBER_B, MEMBER_A, 20000))
+                .isInstanceOf(IllegalStateException.class);
+
+        //then: 먼저 입금한 경우(B -> A)도 롤백
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(1000);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("이체중 예외 발생 - DB 에서 바로 더하고 빼기")
+    void accountTransferAtomicEx() {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+
+        //when
+        assertThatThrownBy(() -> memberService.accountTransferAtomic(MEMBER_A, MEMBER_EX, 2000))
+                .isInstanceOf(IllegalStateException.class);
+
+        //then
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_EX).getMoney()).isEqualTo(10000);
+    }
+
+}
@@ -0,0 +1,181 @@
+package spring.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import spring.jdbc.domain.Member;
+import spring.jdbc.domain.Transfer;
+import spring.jdbc.repository.MemberRepository;
+import spring.jdbc.repository.MemberRepositoryV5;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 그룹 커밋 계좌이체
+ */
+@Slf4j
+@SpringBootTest
+class TransferPipelineTest {
+
+    public static final String MEMBER_A = "memberA";
+    public static final String MEMBER_B = "memberB";
+    public static final String MEMBER_EX = "ex";
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberServiceV4 memberService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransferPipeline pipeline;
+
+    @TestConfiguration
+    static class TestConfig {
+
+        private final DataSource dataSource;
+
+        public TestConfig(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Bean
+        MemberRepository memberRepository() {
+            return new MemberRepositoryV5(dataSource);
+        }
+        @Bean
+        MemberServiceV4 memberServiceV4() {
+            return new MemberServiceV4(memberRepository());
+        }
+    }
+
+    @AfterEach
+    void after() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+        memberRepository.delete(MEMBER_A);
+        memberRepository.delete(MEMBER_B);
+        memberRepository.delete(MEMBER_EX);
+    }
+
+    @Test
+    @DisplayName("여러 이체를 모아서 적은 수의 트랜잭션으로 커밋")
+    void groupCommit() throws Exception {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+        pipeline = new TransferPipeline(memberService, transactionManager, 50, 20, 1000);
+
+        //when
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(pipeline.submit(i % 2 == 0 ? new Transfer(MEMBER_A, MEMBER_B, 100) : new Transfer(MEMBER_B, MEMBER_A, 50)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        //then
+        log.info("batches={}, committed={}", pipeline.getBatchCount(), pipeline.getCommittedCount());
+        assertThat(pipeline.getCommittedCount()).isEqualTo(100);
+        assertThat(pipeline.getBatchCount()).isLessThan(100);
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(7500);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(12500);
+    }
+
+    @Test
+    @DisplayName("실패한 이체만 세이브포인트로 롤백, 같은 배치의 나머지는 커밋")
+    void isolateFailedTransfer() throws Exception {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+        pipeline = new TransferPipeline(memberService, transactionManager, 10, 200, 100);  //한 배치로 모이도록
+
+        //when
+        CompletableFuture<Void> ok1 = pipeline.submit(new Transfer(MEMBER_A, MEMBER_B, 1000));
+        CompletableFuture<Void> ex = pipeline.submit(new Transfer(MEMBER_A, MEMBER_EX, 1000));  //이체중 예외
+        CompletableFuture<Void> insufficient = pipeline.submit(new Transfer(MEMBER_B, MEMBER_A, 100000));  //잔액 부족
+        CompletableFuture<Void> ok2 = pipeline.submit(new Transfer(MEMBER_B, MEMBER_A, 500));
+
+        //then
+        ok1.get(10, TimeUnit.SECONDS);
+        ok2.get(10, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> ex.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> insufficient.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+
+        assertThat(pipeline.getBatchCount()).isEqualTo(1);
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(9500);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(10500);
+        assertThat(memberRepository.findById(MEMBER_EX).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    @DisplayName("close - 큐에 남은 이체까지 커밋, 이후 요청은 거부")
+    void closeDrainsQueue() throws Exception {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+        pipeline = new TransferPipeline(memberService, transactionManager, 5, 50, 100);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(pipeline.submit(new Transfer(MEMBER_A, MEMBER_B, 100)));
+        }
+
+        //when
+        pipeline.close();
+
+        //then
+        for (CompletableFuture<Void> future : futures) {
+            assertThat(future).isCompleted();
+            future.get();
+        }
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(12000);
+        assertThatThrownBy(() -> pipeline.submit(new Transfer(MEMBER_A, MEMBER_B, 100)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("커미터가 Error 로 멈추면 대기 중인 이체를 모두 실패, 이후 요청은 거부")
+    void committerFailure() {
+        //given: 어떤 이체든 Error 를 던지는 서비스
+        MemberServiceV4 failingService = new MemberServiceV4(memberRepository) {
+            @Override
+            public void transferAll(List<Transfer> transfers) {
+                throw new StackOverflowError("test");
+            }
+        };
+        pipeline = new TransferPipeline(failingService, transactionManager, 100, 200, 100);  //모두 제출한 뒤에 실패하도록
+
+        //when
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(pipeline.submit(new Transfer(MEMBER_A, MEMBER_B, 100)));
+        }
+
+        //then
+        for (CompletableFuture<Void> future : futures) {
+            assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class).hasCauseInstanceOf(StackOverflowError.class);
+        }
+        assertThatThrownBy(() -> pipeline.submit(new Transfer(MEMBER_A, MEMBER_B, 100)))
+                .isInstanceOf(IllegalStateException.class).hasCauseInstanceOf(StackOverflowError.class);
+    }
+}
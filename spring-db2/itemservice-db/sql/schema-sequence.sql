@@ -0,0 +1,15 @@
+drop table if exists item CASCADE;
+drop sequence if exists item_seq;
+create sequence item_seq start with 1 increment by 50;
+create table item
+(
+    id        bigint default next value for item_seq,
+    item_name varchar(10),
+    price     integer,
+    quantity  integer,
+    primary key (id)
+);
+
+--검색 조건 인덱스 (Flyway db/migration/V2__create_item_indexes.sql 과 같음)
+create index idx_item_price on item (price);
+create index idx_item_name on item (item_name);
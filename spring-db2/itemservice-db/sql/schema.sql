@@ -7,3 +7,7 @@ create table item
     quantity  integer,
     primary key (id)
 );
+
+--검색 조건 인덱스 (Flyway db/migration/V2__create_item_indexes.sql 과 같음)
+create index idx_item_price on item (price);
+create index idx_item_name on item (item_name);
@@ -0,0 +1,98 @@
+package hello.itemservice;
+
+import hello.itemservice.config.MetricsConfig;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메트릭(MetricsConfig) 오버헤드 - ItemService.findById 처리량을 메트릭 끔/켬으로 비교 (목표: 1% 미만)
+ * - off: MetricsConfig 없음 + management.metrics.enable.all=false (부트의 Hikari, 스프링 데이터 메트릭도 끔)
+ * - on : MetricsConfig + application.properties 기본값(히스토그램 없음), Prometheus 레지스트리
+ *   -> 서비스 타이머 + 저장소 타이머 + 트랜잭션 타이머(V2Config) + Hikari 커넥션 대기 타이머
+ * - MemoryConfig: DB 없음 -> on/off 차이가 호출 1건당 측정 비용 그 자체 (DB 구현의 findById 시간과 비교)
+ * - JdbcTemplateV3Config: ItemServiceV1, 트랜잭션 없음 / V2Config: ItemServiceV2(@Transactional) + 스프링 데이터 JPA
+ * - db=mem: 메모리 H2, DB 왕복이 가장 짧음 -> 오버헤드 비율이 가장 크게 나오는 조건
+ *   db=tcp: H2 TCP 서버(애플리케이션과 같은 구성)의 benchmark 데이터베이스, 실행 후 테이블 삭제(create-drop)
+ *
+ * 실행: ./gradlew jmh -PjmhInclude=ItemMetricsBenchmark
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ItemMetricsBenchmark {
+
+    @Param({"MemoryConfig", "JdbcTemplateV3Config", "V2Config"})
+    String backend;
+
+    @Param({"off", "on"})
+    String metrics;
+
+    @Param({"mem", "tcp"})
+    String db;
+
+    @Param({"10000"})
+    int size;
+
+    static final String MEM_URL = "jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1";
+    static final String TCP_URL = "jdbc:h2:tcp://localhost/~/benchmark";
+
+    ConfigurableApplicationContext context;
+    ItemService itemService;
+    ItemRepository itemRepository;
+    long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ClassNotFoundException {
+        Class<?> config = Class.forName("hello.itemservice.config." + backend);
+        boolean on = metrics.equals("on");
+        Class<?>[] sources = on
+                ? new Class<?>[]{ItemRepositoryBenchmark.BenchmarkApplication.class, config, MetricsConfig.class}
+                : new Class<?>[]{ItemRepositoryBenchmark.BenchmarkApplication.class, config};
+        context = new SpringApplicationBuilder(sources)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=benchmark",
+                        "--spring.datasource.url=" + (db.equals("tcp") ? TCP_URL : MEM_URL),
+                        "--spring.datasource.username=sa",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.flyway.enabled=false",  //스키마는 하이버네이트 DDL 로 생성
+                        "--management.metrics.enable.all=" + on,
+                        "--management.metrics.data.repository.autotime.enabled=false",
+                        "--logging.level.org.springframework.jdbc=warn",
+                        "--logging.level.hello.itemservice=warn",
+                        "--logging.level.org.hibernate.SQL=warn",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=warn");
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(itemService.save(new Item("item" + i, i, 1)));
+        }
+        ids = items.stream().mapToLong(Item::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (itemRepository instanceof MemoryItemRepository) {
+            ((MemoryItemRepository) itemRepository).clearStore();  //static 저장소
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return itemService.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
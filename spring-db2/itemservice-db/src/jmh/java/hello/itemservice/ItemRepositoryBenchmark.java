@@ -0,0 +1,118 @@
+package hello.itemservice;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.memory.ColumnarItemRepository;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.repository.memory.OffHeapItemRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ItemRepository 구현(= ItemServiceApplication 에 @Import 하는 설정)별 save / findById / update / findAll 비교
+ * - backend 설정 클래스만 import 한 스프링 컨텍스트를 메모리 H2 로 띄우고 size 건을 미리 저장
+ * - 처리량(Throughput) + 지연시간 분포(SampleTime, p50/p90/p99...) + 할당량(build.gradle 의 gc 프로파일러)
+ * - findAll 은 상품명 + 가격 조건, 첫 페이지(20건)
+ *
+ * 실행: ./gradlew jmh -PjmhInclude=ItemRepositoryBenchmark
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ItemRepositoryBenchmark {
+
+    @Param({"MemoryConfig", "ColumnarMemoryConfig", "OffHeapMemoryConfig",
+            "JdbcTemplateV1Config", "JdbcTemplateV2Config", "JdbcTemplateV3Config",
+            "MyBatisConfig", "JpaConfig", "SpringDataJpaConfig", "QuerydslConfig"})
+    String backend;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    ConfigurableApplicationContext context;
+    ItemRepository itemRepository;
+    long[] ids;
+
+    /**
+     * 컴포넌트 스캔 없이 자동 구성(DataSource, JPA, MyBatis 매퍼, 스프링 데이터 리포지토리)만 사용
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    static class BenchmarkApplication {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws ClassNotFoundException {
+        Class<?> config = Class.forName("hello.itemservice.config." + backend);
+        context = new SpringApplicationBuilder(BenchmarkApplication.class, config)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=benchmark",
+                        "--spring.datasource.url=jdbc:h2:mem:items;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.flyway.enabled=false",  //스키마는 하이버네이트 DDL 로 생성
+                        "--logging.level.org.springframework.jdbc=warn",
+                        "--logging.level.hello.itemservice=warn",
+                        "--logging.level.hello.itemservice.repository.mybatis=warn",
+                        "--logging.level.org.hibernate.SQL=warn",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=warn");
+        itemRepository = context.getBean(ItemRepository.class);
+
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new Item("item" + i, i % 100_000, 1));
+        }
+        itemRepository.saveAll(items);
+        ids = items.stream().mapToLong(Item::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        //메모리 저장소는 static 이거나 컨텍스트 밖에서도 살아있을 수 있으므로 비움
+        if (itemRepository instanceof MemoryItemRepository) {
+            ((MemoryItemRepository) itemRepository).clearStore();
+        }
+        if (itemRepository instanceof ColumnarItemRepository) {
+            ((ColumnarItemRepository) itemRepository).clearStore();
+        }
+        if (itemRepository instanceof OffHeapItemRepository) {
+            ((OffHeapItemRepository) itemRepository).clearStore();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public Item save() {
+        return itemRepository.save(new Item("itemNew", 1000, 1));
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return itemRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public void update() {
+        itemRepository.update(randomId(), new ItemUpdateDto("itemUpd", 2000, 2));
+    }
+
+    @Benchmark
+    public List<Item> findAll() {
+        return itemRepository.findAll(new ItemSearchCond("item1", 50_000, 20, null));
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,134 @@
+package hello.itemservice;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import hello.itemservice.domain.Item;
+import hello.itemservice.metrics.CallTimers;
+import hello.itemservice.metrics.HikariMetricsTrackerFactory;
+import hello.itemservice.metrics.MeteredTransactionManager;
+import hello.itemservice.metrics.MethodMetricsPostProcessor;
+import hello.itemservice.metrics.MethodTimingInterceptor;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메트릭(MetricsConfig)이 호출 1건에 더하는 비용 - ItemMetricsBenchmark 의 DB 조회는 실행마다 편차가 커서
+ * 1% 차이를 직접 구분할 수 없으므로, 메트릭이 더하는 부분만 DB 없이 끔/켬으로 비교 (ns)
+ * - repositoryCall: 이미 프록시인 빈(@Repository 예외 변환, @Transactional)에 MethodTimingInterceptor 를 더한 호출
+ *   -> findById 1건에 서비스 + 저장소 두 번
+ * - transaction: 아무것도 하지 않는 트랜잭션 매니저를 MeteredTransactionManager 로 감싼 TransactionTemplate (V2Config)
+ * - connectionAcquire: Hikari 가 커넥션을 빌릴 때마다 부르는 기록 (on: HikariMetricsTrackerFactory,
+ *   off: 부트의 MicrometerMetricsTrackerFactory + management.metrics.enable.all=false 의 no-op)
+ * - 오버헤드 = (on - off 합계) / ItemMetricsBenchmark 의 off findById 시간
+ *
+ * 실행: ./gradlew jmh -PjmhInclude=MetricsOverheadBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+    @Param({"off", "on"})
+    String metrics;
+
+    ItemRepository itemRepository;
+    TransactionTemplate transactionTemplate;
+    IMetricsTracker poolTracker;
+    long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean on = metrics.equals("on");
+        MeterRegistry registry = new SimpleMeterRegistry();
+        if (!on) {
+            registry.config().meterFilter(MeterFilter.deny());
+        }
+        CallTimers callTimers = new CallTimers(registry, false);
+
+        //기존 프록시 맨 앞에 추가 (MethodMetricsPostProcessor 와 같음)
+        ProxyFactory proxyFactory = new ProxyFactory(new MemoryItemRepository());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> invocation.proceed());
+        if (on) {
+            proxyFactory.addAdvice(0, new MethodTimingInterceptor(callTimers,
+                    MethodMetricsPostProcessor.REPOSITORY_METRIC, MemoryItemRepository.class));
+        }
+        itemRepository = (ItemRepository) proxyFactory.getProxy();
+        ids = new long[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = itemRepository.save(new Item("item" + i, i, 1)).getId();
+        }
+
+        NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+        transactionTemplate = new TransactionTemplate(on ? new MeteredTransactionManager(transactionManager, callTimers) : transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        PoolStats poolStats = new PoolStats(1000) {
+            @Override
+            protected void update() {
+            }
+        };
+        poolTracker = on
+                ? new HikariMetricsTrackerFactory(registry, callTimers).create("benchmark", poolStats)
+                : new MicrometerMetricsTrackerFactory(registry).create("benchmark", poolStats);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        new MemoryItemRepository().clearStore();  //static 저장소
+    }
+
+    @Benchmark
+    public Optional<Item> repositoryCall() {
+        return itemRepository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public void transaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+        });
+    }
+
+    @Benchmark
+    public void connectionAcquire() {
+        poolTracker.recordConnectionAcquiredNanos(ThreadLocalRandom.current().nextInt(1000));
+    }
+
+    /**
+     * 트랜잭션 동기화(커밋 후 콜백)는 실제 매니저와 같이 동작, 커넥션은 없음
+     */
+    static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
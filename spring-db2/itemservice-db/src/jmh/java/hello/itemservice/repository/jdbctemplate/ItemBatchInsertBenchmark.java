@@ -0,0 +1,71 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대량 저장: save 반복(건마다 1회 왕복 + 키 조회) vs saveAll(JDBC 배치)
+ * 메모리 H2, 한 번 실행 시간 측정 (매 반복마다 테이블을 비우고 count 건 저장)
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ItemBatchInsertBenchmark {
+
+    @Param({"100000"})
+    int count;
+
+    @Param({"V1", "V3"})
+    String impl;
+
+    SingleConnectionDataSource dataSource;
+    JdbcTemplate template;
+    ItemRepository itemRepository;
+    List<Item> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:batch;DB_CLOSE_DELAY=-1", "sa", "", true);
+        template = new JdbcTemplate(dataSource);
+        template.execute("drop table if exists item");
+        template.execute("create table item (id bigint generated by default as identity, item_name varchar(10), " +
+                "price integer, quantity integer, primary key (id))");
+        itemRepository = impl.equals("V1") ? new JdbcTemplateItemRepositoryV1(dataSource) : new JdbcTemplateItemRepositoryV3(dataSource);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        template.execute("truncate table item");
+        items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new Item("item" + i, i, 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        template.execute("drop table item");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public void saveOneByOne() {
+        for (Item item : items) {
+            itemRepository.save(item);
+        }
+    }
+
+    @Benchmark
+    public List<Item> saveAll() {
+        return itemRepository.saveAll(items);
+    }
+}
@@ -0,0 +1,89 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.search.FullTextItemRepository;
+import hello.itemservice.repository.search.NGramItemNameIndex;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검색 조건 인덱스(db/migration/V2__create_item_indexes.sql) 유무에 따른 findAll 비교
+ * - 메모리 H2 에 Flyway 마이그레이션으로 스키마 생성 (none: V1 까지, index: V2 까지) 후 size 건 저장
+ * - fulltext: index + 상품명 색인(FullTextItemRepository, NGramItemNameIndex)
+ * - 상품명 item0 ~ item999999, 가격 0 ~ 99999 반복, 첫 페이지(20건)
+ * - contains(like '%x%') 는 DB 인덱스와 무관하게 전체 스캔, prefix(like 'x%') / maxPrice 는 인덱스 범위 조회
+ *
+ * 실행: ./gradlew jmh -PjmhInclude=ItemIndexBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ItemIndexBenchmark {
+
+    static final int PAGE_SIZE = 20;
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"none", "index", "fulltext"})
+    String indexes;
+
+    SingleConnectionDataSource dataSource;
+    JdbcTemplate template;
+    ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:indexes;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=0", "sa", "", true);  //커넥션 획득 비용 제외, 같은 쿼리 결과 재사용 끔
+        Flyway.configure()
+                .dataSource(dataSource)
+                .placeholders(Map.of("item_id", ""))  //id 를 직접 넣으므로 identity 없이 (H2 1.4 는 대량 insert 에서 행마다 시퀀스를 커밋해 매우 느림)
+                .target(indexes.equals("none") ? "1" : "latest")
+                .load()
+                .migrate();
+        template = new JdbcTemplate(dataSource);
+        template.update("insert into item (id, item_name, price, quantity) " +
+                "select x + 1, 'item' || x, mod(x, 100000), 1 from system_range(0, ?)", size - 1);
+        template.execute("analyze");  //인덱스 선택에 쓰는 통계 갱신
+        itemRepository = new JdbcTemplateItemRepositoryV3(dataSource);
+        if (indexes.equals("fulltext")) {
+            FullTextItemRepository fullTextItemRepository = new FullTextItemRepository(itemRepository, new NGramItemNameIndex());
+            fullTextItemRepository.rebuild();
+            itemRepository = fullTextItemRepository;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        template.execute("drop all objects");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<Item> contains() {
+        return itemRepository.findAll(new ItemSearchCond("item12345", null, false, PAGE_SIZE, null));
+    }
+
+    @Benchmark
+    public List<Item> prefix() {
+        return itemRepository.findAll(new ItemSearchCond("item12345", null, true, PAGE_SIZE, null));
+    }
+
+    @Benchmark
+    public List<Item> maxPrice() {
+        return itemRepository.findAll(new ItemSearchCond(null, 10, PAGE_SIZE, null));
+    }
+
+    @Benchmark
+    public List<Item> prefixAndMaxPrice() {
+        return itemRepository.findAll(new ItemSearchCond("item1", 10, true, PAGE_SIZE, null));
+    }
+}
@@ -0,0 +1,71 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 페이지 조회: 키셋(where id > lastId order by id limit) vs OFFSET(order by id limit offset)
+ * - 메모리 H2 에 size 건 저장 후 첫 페이지 / 마지막 근처 페이지 조회
+ * - 키셋은 페이지 위치와 무관하게 일정, OFFSET 은 앞의 행을 모두 읽고 버리므로 뒤로 갈수록 느려짐
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class KeysetPaginationBenchmark {
+
+    static final int PAGE_SIZE = 20;
+
+    @Param({"200000"})
+    int size;
+
+    @Param({"first", "deep"})
+    String page;
+
+    SingleConnectionDataSource dataSource;
+    JdbcTemplate template;
+    JdbcTemplateItemRepositoryV3 itemRepository;
+    long skip;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:paging;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=0", "sa", "", true);  //커넥션 획득 비용 제외, 같은 쿼리 결과 재사용 끔
+        template = new JdbcTemplate(dataSource);
+        template.execute("drop table if exists item");
+        template.execute("create table item (id bigint generated by default as identity, item_name varchar(10), " +
+                "price integer, quantity integer, primary key (id))");
+        template.batchUpdate("insert into item (item_name, price, quantity) values (?, ?, ?)",
+                IntStream.range(0, size)
+                        .mapToObj(i -> new Object[]{"item" + i, i % 100_000, 1})
+                        .collect(Collectors.toList()));
+        itemRepository = new JdbcTemplateItemRepositoryV3(dataSource);
+
+        //id 는 1부터 순서대로이므로 skip 건 이후 = lastId skip
+        skip = page.equals("first") ? 0 : size - PAGE_SIZE * 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        template.execute("drop table item");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<Item> keyset() {
+        return itemRepository.findAll(new ItemSearchCond(null, null, PAGE_SIZE, skip == 0 ? null : skip));
+    }
+
+    @Benchmark
+    public List<Item> offset() {
+        return template.query("select id, item_name, price, quantity from item order by id limit ? offset ?",
+                BeanPropertyRowMapper.newInstance(Item.class), PAGE_SIZE, skip);
+    }
+}
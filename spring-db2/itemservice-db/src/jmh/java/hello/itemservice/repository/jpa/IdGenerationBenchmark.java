@@ -0,0 +1,77 @@
+package hello.itemservice.repository.jpa;
+
+import hello.itemservice.ItemServiceApplication;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JPA 대량 저장(JpaItemRepositoryV3.saveAll): IDENTITY vs 시퀀스(pooled-lo, sequence 프로필)
+ * - IDENTITY : persist 마다 insert 1회 + 생성된 키 조회
+ * - sequence : 50건마다 시퀀스 1회, insert 는 hibernate.jdbc.batch_size 단위 배치
+ * 애플리케이션 설정(V2Config) 그대로 메모리 H2 로 실행
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+
+    @Param({"10000"})
+    int count;
+
+    @Param({"identity", "sequence"})
+    String idGeneration;
+
+    ConfigurableApplicationContext context;
+    ItemRepository itemRepository;
+    TransactionTemplate transactionTemplate;
+    JdbcTemplate jdbcTemplate;
+    List<Item> items;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ItemServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=" + idGeneration,
+                        "--spring.datasource.url=jdbc:h2:mem:idgen;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.flyway.enabled=false",  //스키마는 하이버네이트 DDL 로 생성
+                        "--logging.level.org.springframework.jdbc=warn",
+                        "--logging.level.org.hibernate.SQL=warn",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=warn");
+        itemRepository = context.getBean(ItemRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        jdbcTemplate.execute("truncate table item");
+        items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new Item("item" + i, i, 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> saveAll() {
+        return transactionTemplate.execute(status -> itemRepository.saveAll(items));
+    }
+}
@@ -0,0 +1,47 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.lang.reflect.Field;
+
+/**
+ * 메모리 저장소 힙 사용량 비교 (JOL)
+ * 실행: jmh 클래스패스로 main 실행 (ex. IDE 에서 실행)
+ */
+public class ItemStoreFootprint {
+
+    private static final int SIZE = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        MemoryItemRepository memory = new MemoryItemRepository();
+        memory.clearStore();
+        ColumnarItemRepository columnar = new ColumnarItemRepository();
+        for (int i = 0; i < SIZE; i++) {
+            memory.save(new Item("item" + i, i % 100_000, i % 100));
+            columnar.save(new Item("item" + i, i % 100_000, i % 100));
+        }
+
+        //MemoryItemRepository 는 static 필드에 저장하므로 직접 꺼내서 측정
+        GraphLayout memoryStore = GraphLayout.parseInstance(staticField("store"));
+        GraphLayout memoryIndex = GraphLayout.parseInstance(staticField("priceIndex"), staticField("nameIndex"));
+        GraphLayout columnarStore = GraphLayout.parseInstance(columnar);
+
+        System.out.println("=== MemoryItemRepository store (" + SIZE + " items)");
+        System.out.println(memoryStore.toFootprint());
+        System.out.println("=== MemoryItemRepository indexes");
+        System.out.println(memoryIndex.toFootprint());
+        System.out.println("=== ColumnarItemRepository (" + SIZE + " items)");
+        System.out.println(columnarStore.toFootprint());
+        System.out.printf("bytes/item: memory store=%.1f, memory indexes=%.1f, columnar=%.1f%n",
+                (double) memoryStore.totalSize() / SIZE,
+                (double) memoryIndex.totalSize() / SIZE,
+                (double) columnarStore.totalSize() / SIZE);
+    }
+
+    private static Object staticField(String name) throws Exception {
+        Field field = MemoryItemRepository.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(null);
+    }
+}
@@ -0,0 +1,61 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findAll 스캔: HashMap(기존 구현) vs MemoryItemRepository(인덱스) vs ColumnarItemRepository(primitive 배열)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ItemStoreScanBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"hashmap", "memory", "columnar"})
+    String impl;
+
+    ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (impl.equals("memory")) {
+            MemoryItemRepository repository = new MemoryItemRepository();
+            repository.clearStore();
+            itemRepository = repository;
+        } else if (impl.equals("columnar")) {
+            itemRepository = new ColumnarItemRepository();
+        } else {
+            itemRepository = new MemoryItemRepositoryBenchmark.SynchronizedHashMapItemRepository();
+        }
+        for (int i = 0; i < size; i++) {
+            itemRepository.save(new Item("item" + i, i % 100_000, i % 100));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (itemRepository instanceof MemoryItemRepository) {
+            ((MemoryItemRepository) itemRepository).clearStore();
+        }
+    }
+
+    //가격 조건 (결과 1%)
+    @Benchmark
+    public List<Item> scanByMaxPrice() {
+        return itemRepository.findAll(new ItemSearchCond(null, 1000));
+    }
+
+    //상품명 조건
+    @Benchmark
+    public List<Item> scanByName() {
+        return itemRepository.findAll(new ItemSearchCond("m1234", null));
+    }
+}
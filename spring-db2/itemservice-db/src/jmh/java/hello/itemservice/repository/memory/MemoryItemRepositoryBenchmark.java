@@ -0,0 +1,106 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ObjectUtils;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * MemoryItemRepository(ConcurrentHashMap + AtomicLong) vs 기존 구현(HashMap + long sequence)
+ * 기존 구현은 멀티 스레드에서 데이터가 유실되므로 synchronized 로 감싼 버전을 비교 대상으로 사용
+ *
+ * 기본은 코어 수 만큼 스레드 사용, 확장성 확인은 스레드 수를 바꿔가며 실행 (build.gradle 의 jmh { threads = N })
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+public class MemoryItemRepositoryBenchmark {
+
+    private static final int INITIAL_SIZE = 10_000;
+
+    @Param({"concurrent", "synchronized"})
+    String impl;
+
+    ItemRepository itemRepository;
+    long[] ids;  //clearStore 해도 sequence 는 초기화되지 않으므로 저장된 id 를 보관
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        if (impl.equals("concurrent")) {
+            MemoryItemRepository repository = new MemoryItemRepository();
+            repository.clearStore();
+            itemRepository = repository;
+        } else {
+            itemRepository = new SynchronizedHashMapItemRepository();
+        }
+        ids = new long[INITIAL_SIZE];
+        for (int i = 0; i < INITIAL_SIZE; i++) {
+            ids[i] = itemRepository.save(new Item("item" + i, i, i)).getId();
+        }
+    }
+
+    @Benchmark
+    public Item save() {
+        return itemRepository.save(new Item("item", 1000, 1));
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return itemRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public void update() {
+        int n = ThreadLocalRandom.current().nextInt(1000);
+        itemRepository.update(randomId(), new ItemUpdateDto("item" + n, n, n));
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(INITIAL_SIZE)];
+    }
+
+    /**
+     * 기존 MemoryItemRepository 를 synchronized 로 감싼 비교 대상
+     */
+    static class SynchronizedHashMapItemRepository implements ItemRepository {
+
+        private final Map<Long, Item> store = new HashMap<>();
+        private long sequence = 0L;
+
+        @Override
+        public synchronized Item save(Item item) {
+            item.setId(++sequence);
+            store.put(item.getId(), item);
+            return item;
+        }
+
+        @Override
+        public synchronized void update(Long itemId, ItemUpdateDto updateParam) {
+            Item findItem = Optional.ofNullable(store.get(itemId)).orElseThrow();
+            findItem.setItemName(updateParam.getItemName());
+            findItem.setPrice(updateParam.getPrice());
+            findItem.setQuantity(updateParam.getQuantity());
+        }
+
+        @Override
+        public synchronized Optional<Item> findById(Long id) {
+            return Optional.ofNullable(store.get(id));
+        }
+
+        @Override
+        public synchronized List<Item> findAll(ItemSearchCond cond) {
+            return store.values().stream()
+                    .filter(item -> ObjectUtils.isEmpty(cond.getItemName()) || item.getItemName().contains(cond.getItemName()))
+                    .filter(item -> cond.getMaxPrice() == null || item.getPrice() <= cond.getMaxPrice())
+                    .collect(Collectors.toList());
+        }
+    }
+}
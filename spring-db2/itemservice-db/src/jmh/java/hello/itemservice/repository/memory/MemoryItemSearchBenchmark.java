@@ -0,0 +1,62 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findAll: 보조 인덱스(MemoryItemRepository) vs 전체 스캔(기존 구현)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MemoryItemSearchBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    @Param({"indexed", "scan"})
+    String impl;
+
+    ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (impl.equals("indexed")) {
+            MemoryItemRepository repository = new MemoryItemRepository();
+            repository.clearStore();
+            itemRepository = repository;
+        } else {
+            itemRepository = new MemoryItemRepositoryBenchmark.SynchronizedHashMapItemRepository();
+        }
+        for (int i = 0; i < size; i++) {
+            itemRepository.save(new Item("item" + i, i % 100_000, 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (itemRepository instanceof MemoryItemRepository) {
+            ((MemoryItemRepository) itemRepository).clearStore();
+        }
+    }
+
+    @Benchmark
+    public List<Item> findByName() {
+        return itemRepository.findAll(new ItemSearchCond("m1234", null));
+    }
+
+    @Benchmark
+    public List<Item> findByMaxPrice() {
+        return itemRepository.findAll(new ItemSearchCond(null, 100));
+    }
+
+    @Benchmark
+    public List<Item> findByNameAndMaxPrice() {
+        return itemRepository.findAll(new ItemSearchCond("m1234", 50_000));
+    }
+}
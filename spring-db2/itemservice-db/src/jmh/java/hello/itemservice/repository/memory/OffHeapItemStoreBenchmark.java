@@ -0,0 +1,69 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 힙 저장(MemoryItemRepository) vs 힙 밖 저장(OffHeapItemRepository)
+ * 힙을 작게 두고 많은 데이터를 적재한 상태에서 GC 횟수/시간(gc.count, gc.time), 할당량(gc.alloc.rate) 비교
+ * -prof gc 결과를 함께 확인 (build.gradle jmh { profilers = ['gc'] })
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:MaxDirectMemorySize=2g"})
+public class OffHeapItemStoreBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"memory", "offheap"})
+    String impl;
+
+    ItemRepository itemRepository;
+    long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (impl.equals("memory")) {
+            MemoryItemRepository repository = new MemoryItemRepository();
+            repository.clearStore();
+            itemRepository = repository;
+        } else {
+            itemRepository = new OffHeapItemRepository();
+        }
+        firstId = itemRepository.save(new Item("item0", 0, 0)).getId();
+        for (int i = 1; i < size; i++) {
+            itemRepository.save(new Item("item" + i, i % 100_000, i % 100));
+        }
+        System.gc();
+    }
+
+    @Benchmark
+    public Optional<Item> findById() {
+        return itemRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public void update() {
+        int n = ThreadLocalRandom.current().nextInt(100_000);
+        itemRepository.update(randomId(), new ItemUpdateDto("item" + n, n, n % 100));
+    }
+
+    @Benchmark
+    public List<Item> findByMaxPrice() {
+        return itemRepository.findAll(new ItemSearchCond(null, 10));
+    }
+
+    private long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(size);
+    }
+}
@@ -14,6 +14,8 @@ import javax.sql.DataSource;
 
 @Slf4j
 //@Import(MemoryConfig.class)
+//@Import(ColumnarMemoryConfig.class)
+//@Import(OffHeapMemoryConfig.class)
 //@Import(JdbcTemplateV1Config.class)
 //@Import(JdbcTemplateV2Config.class)
 //@Import(JdbcTemplateV3Config.class)
@@ -21,7 +23,7 @@ import javax.sql.DataSource;
 //@Import(JpaConfig.class)
 //@Import(SpringDataJpaConfig.class)
 //@Import(QuerydslConfig.class)
-@Import(V2Config.class)
+@Import({V2Config.class, ItemCacheConfig.class, ItemSearchCacheConfig.class, ItemFullTextConfig.class, MetricsConfig.class, SlowQueryConfig.class})
 @SpringBootApplication(scanBasePackages = "hello.itemservice.web")
 public class ItemServiceApplication {
 
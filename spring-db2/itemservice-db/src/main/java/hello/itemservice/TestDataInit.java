@@ -7,6 +7,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 
+import java.util.List;
+
 @Slf4j
 @RequiredArgsConstructor
 public class TestDataInit {
@@ -19,8 +21,9 @@ public class TestDataInit {
     @EventListener(ApplicationReadyEvent.class)
     public void initData() {
         log.info("test data init");
-        itemRepository.save(new Item("itemA", 10000, 10));
-        itemRepository.save(new Item("itemB", 20000, 20));
+        itemRepository.saveAll(List.of(
+                new Item("itemA", 10000, 10),
+                new Item("itemB", 20000, 20)));
     }
 
 }
@@ -0,0 +1,44 @@
+package hello.itemservice.config;
+
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.cache.CachingItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * itemservice.cache.enabled=true 이면 등록된 ItemRepository 빈(구현 기술과 무관)을 CachingItemRepository 로 감싼다.
+ * ItemServiceV1 을 사용하는 설정(JdbcTemplate, MyBatis, JPA 등)에 적용됨
+ * 캐시 통계는 "item" 캐시 메트릭으로 노출 (/actuator/prometheus 의 cache_gets_total{cache="item"} ...)
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.cache.enabled", havingValue = "true")
+public class ItemCacheConfig {
+
+    @Bean
+    public static BeanPostProcessor cachingItemRepositoryPostProcessor(
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${itemservice.cache.maximum-size:10000}") long maximumSize,
+            @Value("${itemservice.cache.ttl:10m}") Duration ttl) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ItemRepository && !(bean instanceof CachingItemRepository)) {
+                    CachingItemRepository repository = new CachingItemRepository((ItemRepository) bean, maximumSize, ttl);
+                    MeterRegistry meterRegistry = registry.getIfAvailable();
+                    if (meterRegistry != null) {
+                        repository.bindTo(meterRegistry, "item");
+                    }
+                    return repository;
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package hello.itemservice.config;
+
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.search.FullTextItemRepository;
+import hello.itemservice.repository.search.ItemNameIndex;
+import hello.itemservice.repository.search.NGramItemNameIndex;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * itemservice.full-text.enabled=true 이면 등록된 ItemRepository 빈(구현 기술과 무관)을 FullTextItemRepository 로 감싼다.
+ * 검색 엔진은 ItemNameIndex 빈 (없으면 NGramItemNameIndex)
+ * ItemServiceV1 을 사용하는 설정(JdbcTemplate, MyBatis, JPA 등)에 적용됨
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.full-text.enabled", havingValue = "true")
+public class ItemFullTextConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ItemNameIndex itemNameIndex() {
+        return new NGramItemNameIndex();
+    }
+
+    @Bean
+    public static BeanPostProcessor fullTextItemRepositoryPostProcessor(ObjectProvider<ItemNameIndex> index) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ItemRepository && !(bean instanceof FullTextItemRepository)) {
+                    return new FullTextItemRepository((ItemRepository) bean, index.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
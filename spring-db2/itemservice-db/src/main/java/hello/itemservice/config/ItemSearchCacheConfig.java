@@ -0,0 +1,44 @@
+package hello.itemservice.config;
+
+import hello.itemservice.service.CachingItemService;
+import hello.itemservice.service.ItemService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * itemservice.search-cache.enabled=true 이면 등록된 ItemService 빈(V1, V2 모두)을 CachingItemService 로 감싼다.
+ * 트랜잭션 프록시(ItemServiceV2)가 만들어진 뒤에 감싸므로 캐시 조회는 트랜잭션 밖에서 처리됨
+ * 캐시 통계는 "itemSearch" 캐시 메트릭으로 노출 (/actuator/prometheus 의 cache_gets_total{cache="itemSearch"} ...)
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.search-cache.enabled", havingValue = "true")
+public class ItemSearchCacheConfig {
+
+    @Bean
+    public static BeanPostProcessor cachingItemServicePostProcessor(
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${itemservice.search-cache.maximum-size:1000}") long maximumSize,
+            @Value("${itemservice.search-cache.ttl:1m}") Duration ttl) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ItemService && !(bean instanceof CachingItemService)) {
+                    CachingItemService service = new CachingItemService((ItemService) bean, maximumSize, ttl);
+                    MeterRegistry meterRegistry = registry.getIfAvailable();
+                    if (meterRegistry != null) {
+                        service.bindTo(meterRegistry, "itemSearch");
+                    }
+                    return service;
+                }
+                return bean;
+            }
+        };
+    }
+}
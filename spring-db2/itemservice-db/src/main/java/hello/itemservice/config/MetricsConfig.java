@@ -0,0 +1,71 @@
+package hello.itemservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import hello.itemservice.metrics.CallTimers;
+import hello.itemservice.metrics.HikariMetricsTrackerFactory;
+import hello.itemservice.metrics.MeteredTransactionManager;
+import hello.itemservice.metrics.MethodMetricsPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * itemservice.metrics.enabled=true(기본값) 이면 저장소/서비스 메서드와 트랜잭션 시간을 Micrometer 로 측정
+ * - itemservice.repository, itemservice.service (MethodMetricsPostProcessor)
+ * - itemservice.transaction (MeteredTransactionManager 로 트랜잭션 매니저 빈을 감쌈)
+ * - hikaricp.connections.acquire(커넥션 풀 대기 시간) 등 Hikari 풀 메트릭 (HikariMetricsTrackerFactory, 부트의 등록 대신)
+ * - 기본은 횟수와 총 시간만 (호출당 비용을 findById 의 1% 미만으로), itemservice.metrics.histogram=true 면 히스토그램까지 (CallTimers)
+ * 부트가 함께 측정: http.server.requests(컨트롤러)
+ * -> /actuator/prometheus
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig {
+
+    @Bean
+    public static MethodMetricsPostProcessor methodMetricsPostProcessor(
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${itemservice.metrics.histogram:false}") boolean histogram) {
+        return new MethodMetricsPostProcessor(registry, histogram);
+    }
+
+    @Bean
+    public static BeanPostProcessor meteredTransactionManagerPostProcessor(
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${itemservice.metrics.histogram:false}") boolean histogram) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof PlatformTransactionManager && !(bean instanceof MeteredTransactionManager)) {
+                    return new MeteredTransactionManager((PlatformTransactionManager) bean, new CallTimers(registry.getObject(), histogram));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 풀이 시작되기 전(초기화 전)에 설정 -> 부트는 이미 설정된 풀에 등록하지 않음
+     */
+    @Bean
+    public static BeanPostProcessor hikariMetricsPostProcessor(
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${itemservice.metrics.histogram:false}") boolean histogram) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource && ((HikariDataSource) bean).getMetricsTrackerFactory() == null) {
+                    MeterRegistry meterRegistry = registry.getObject();
+                    ((HikariDataSource) bean).setMetricsTrackerFactory(
+                            new HikariMetricsTrackerFactory(meterRegistry, new CallTimers(meterRegistry, histogram)));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package hello.itemservice.config;
+
+import hello.itemservice.metrics.SlowQueryDataSource;
+import hello.itemservice.metrics.SlowQueryEndpoint;
+import hello.itemservice.metrics.SlowQueryLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * itemservice.slow-query.enabled=true 이면 DataSource 빈을 SlowQueryDataSource 로 감싼다.
+ * 트랜잭션 매니저, JdbcTemplate, MyBatis, JPA 모두 감싼 DataSource 를 받음 -> 검색 조건별로 느린 조회와 실행 계획 확인
+ * 결과는 GET /actuator/slowqueries
+ */
+@Configuration
+@ConditionalOnProperty(name = "itemservice.slow-query.enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${itemservice.slow-query.capacity:100}") int capacity) {
+        return new SlowQueryLog(capacity);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(
+            ObjectProvider<SlowQueryLog> slowQueryLog,
+            @Value("${itemservice.slow-query.threshold:100ms}") Duration threshold,
+            @Value("${itemservice.slow-query.explain:true}") boolean explain) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof SlowQueryDataSource)) {
+                    return new SlowQueryDataSource((DataSource) bean, slowQueryLog.getObject(), threshold, explain);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package hello.itemservice.metrics;
+
+import hello.itemservice.metrics.CallTimers.CallTimer;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.UnexpectedRollbackException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 트랜잭션 매니저 데코레이터 - 트랜잭션 시작부터 커밋/롤백 완료까지의 시간과 횟수
+ * - @Transactional, TransactionTemplate 모두 트랜잭션 매니저를 거치므로 한 곳에서 측정
+ * - itemservice.transaction 타이머, 태그 name(트랜잭션 이름, @Transactional 이면 클래스.메서드), read-only,
+ *   outcome(commit / rollback / unknown) -> 타이머의 count 가 커밋/롤백 횟수
+ * - 새 트랜잭션만 측정 (기존 트랜잭션에 참여하는 호출은 바깥 트랜잭션에 포함)
+ *   새 트랜잭션의 상태를 TimedStatus 로 감싸서 돌려주고 commit/rollback 에서 풀어서 전달
+ *   (트랜잭션 동기화를 등록하지 않음 -> 트랜잭션마다 동기화 목록 정렬/콜백 비용 없음)
+ * - rollback-only 로 커밋이 롤백되면 rollback, 커밋 중 예외(커밋 실패)는 unknown
+ * - 타이머는 (이름, read-only) 마다 커밋/롤백 두 개를 캐시 -> 트랜잭션마다 태그/Meter.Id 를 만들지 않음
+ * - 횟수는 모든 트랜잭션, 시간은 일부 트랜잭션만 측정 (CallTimers)
+ */
+public class MeteredTransactionManager implements PlatformTransactionManager {
+
+    public static final String METRIC = "itemservice.transaction";
+
+    private static final int COMMIT = 0;  //timers 배열 인덱스
+    private static final int ROLLBACK = 1;
+    private static final int UNKNOWN = 2;
+
+    private final PlatformTransactionManager target;
+    private final CallTimers callTimers;
+    private final ConcurrentMap<String, CallTimer[]> timers = new ConcurrentHashMap<>();  //이름 -> [commit, rollback]
+    private final ConcurrentMap<String, CallTimer[]> readOnlyTimers = new ConcurrentHashMap<>();
+
+    public MeteredTransactionManager(PlatformTransactionManager target, CallTimers callTimers) {
+        this.target = target;
+        this.callTimers = callTimers;
+    }
+
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) throws TransactionException {
+        long start = callTimers.sample() ? System.nanoTime() : CallTimers.NOT_SAMPLED;
+        TransactionStatus status = target.getTransaction(definition);
+        if (!status.isNewTransaction()) {
+            return status;
+        }
+        return new TimedStatus(status, definition != null ? definition : TransactionDefinition.withDefaults(), start);
+    }
+
+    @Override
+    public void commit(TransactionStatus status) throws TransactionException {
+        if (!(status instanceof TimedStatus)) {
+            target.commit(status);
+            return;
+        }
+        TimedStatus timed = (TimedStatus) status;
+        int outcome = timed.isRollbackOnly() ? ROLLBACK : COMMIT;
+        try {
+            target.commit(timed.target);
+        } catch (UnexpectedRollbackException e) {
+            outcome = ROLLBACK;
+            throw e;
+        } catch (RuntimeException | Error e) {
+            outcome = UNKNOWN;
+            throw e;
+        } finally {
+            record(timed, outcome);
+        }
+    }
+
+    @Override
+    public void rollback(TransactionStatus status) throws TransactionException {
+        if (!(status instanceof TimedStatus)) {
+            target.rollback(status);
+            return;
+        }
+        TimedStatus timed = (TimedStatus) status;
+        int outcome = ROLLBACK;
+        try {
+            target.rollback(timed.target);
+        } catch (RuntimeException | Error e) {
+            outcome = UNKNOWN;
+            throw e;
+        } finally {
+            record(timed, outcome);
+        }
+    }
+
+    public PlatformTransactionManager getTarget() {
+        return target;
+    }
+
+    private void record(TimedStatus status, int outcome) {
+        long elapsed = status.start == CallTimers.NOT_SAMPLED ? CallTimers.NOT_SAMPLED : System.nanoTime() - status.start;
+        TransactionDefinition definition = status.definition;
+        String name = definition.getName() != null ? definition.getName() : "none";
+        boolean readOnly = definition.isReadOnly();
+        CallTimer timer;
+        if (outcome == UNKNOWN) {
+            timer = timer(name, readOnly, "unknown");
+        } else {
+            CallTimer[] outcomes = (readOnly ? readOnlyTimers : timers).get(name);
+            if (outcomes == null) {
+                outcomes = (readOnly ? readOnlyTimers : timers).computeIfAbsent(name, n ->
+                        new CallTimer[]{timer(n, readOnly, "commit"), timer(n, readOnly, "rollback")});
+            }
+            timer = outcomes[outcome];
+        }
+        timer.record(elapsed);
+    }
+
+    private CallTimer timer(String name, boolean readOnly, String outcome) {
+        return callTimers.timer(METRIC, Tags.of("name", name, "read-only", String.valueOf(readOnly), "outcome", outcome));
+    }
+
+    /**
+     * 새 트랜잭션의 상태 + 측정 정보, 호출하는 쪽에는 원래 상태처럼 동작
+     */
+    private static class TimedStatus implements TransactionStatus {
+
+        private final TransactionStatus target;
+        private final TransactionDefinition definition;
+        private final long start;
+
+        TimedStatus(TransactionStatus target, TransactionDefinition definition, long start) {
+            this.target = target;
+            this.definition = definition;
+            this.start = start;
+        }
+
+        @Override
+        public boolean isNewTransaction() {
+            return target.isNewTransaction();
+        }
+
+        @Override
+        public boolean hasSavepoint() {
+            return target.hasSavepoint();
+        }
+
+        @Override
+        public void setRollbackOnly() {
+            target.setRollbackOnly();
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return target.isRollbackOnly();
+        }
+
+        @Override
+        public void flush() {
+            target.flush();
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return target.isCompleted();
+        }
+
+        @Override
+        public Object createSavepoint() throws TransactionException {
+            return target.createSavepoint();
+        }
+
+        @Override
+        public void rollbackToSavepoint(Object savepoint) throws TransactionException {
+            target.rollbackToSavepoint(savepoint);
+        }
+
+        @Override
+        public void releaseSavepoint(Object savepoint) throws TransactionException {
+            target.releaseSavepoint(savepoint);
+        }
+    }
+}
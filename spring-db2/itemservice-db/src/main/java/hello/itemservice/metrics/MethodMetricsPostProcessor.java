@@ -0,0 +1,86 @@
+package hello.itemservice.metrics;
+
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.cache.CachingItemRepository;
+import hello.itemservice.repository.search.FullTextItemRepository;
+import hello.itemservice.repository.v2.ItemQueryRepositoryV2;
+import hello.itemservice.repository.v2.ItemRepositoryV2;
+import hello.itemservice.service.CachingItemService;
+import hello.itemservice.service.ItemService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * 저장소(ItemRepository 구현, ItemRepositoryV2, ItemQueryRepositoryV2) 빈과 ItemService 빈의 메서드 호출 시간 측정
+ * - 저장소 -> itemservice.repository, 서비스 -> itemservice.service 타이머 (MethodTimingInterceptor)
+ * - 이미 프록시인 빈(@Transactional)은 기존 프록시 맨 앞에 추가 -> 서비스 시간에 커밋까지 포함
+ *   아니면 클래스 기반 프록시로 감쌈 (instanceof MemoryItemRepository 등 구현 타입 검사 유지)
+ * - Ordered 이므로 캐시/검색 데코레이터(ItemCacheConfig, ItemSearchCacheConfig, ItemFullTextConfig)보다 먼저 적용
+ *   -> 캐시 적중은 측정하지 않고 실제 구현의 호출만 측정 (캐시 적중률은 캐시 통계로)
+ * - 스프링 데이터 JPA 리포지토리(ItemRepositoryV2)의 class 태그는 구현(SimpleJpaRepository) 대신 인터페이스 이름
+ */
+public class MethodMetricsPostProcessor implements BeanPostProcessor, Ordered {
+
+    public static final String REPOSITORY_METRIC = "itemservice.repository";
+    public static final String SERVICE_METRIC = "itemservice.service";
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final boolean histogram;
+    private CallTimers callTimers;
+
+    /**
+     * 빈 후처리기는 일찍 만들어지므로 MeterRegistry 는 처음 감쌀 때 꺼냄 (부트의 레지스트리 설정이 적용된 뒤)
+     */
+    public MethodMetricsPostProcessor(ObjectProvider<MeterRegistry> registry, boolean histogram) {
+        this.registry = registry;
+        this.histogram = histogram;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        String metricName = metricName(bean);
+        if (metricName == null) {
+            return bean;
+        }
+        Class<?> targetClass = bean instanceof ItemRepositoryV2 ? ItemRepositoryV2.class : AopUtils.getTargetClass(bean);
+        MethodTimingInterceptor interceptor = new MethodTimingInterceptor(callTimers(), metricName, targetClass);
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy();
+    }
+
+    private CallTimers callTimers() {
+        if (callTimers == null) {
+            callTimers = new CallTimers(registry.getObject(), histogram);  //빈 생성은 한 스레드에서
+        }
+        return callTimers;
+    }
+
+    private String metricName(Object bean) {
+        if (bean instanceof CachingItemRepository || bean instanceof FullTextItemRepository || bean instanceof CachingItemService) {
+            return null;
+        }
+        if (bean instanceof ItemRepository || bean instanceof ItemRepositoryV2 || bean instanceof ItemQueryRepositoryV2) {
+            return REPOSITORY_METRIC;
+        }
+        if (bean instanceof ItemService) {
+            return SERVICE_METRIC;
+        }
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
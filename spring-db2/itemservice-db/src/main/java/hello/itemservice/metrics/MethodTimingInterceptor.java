@@ -0,0 +1,62 @@
+package hello.itemservice.metrics;
+
+import hello.itemservice.metrics.CallTimers.CallTimer;
+import io.micrometer.core.instrument.Tags;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 빈 하나의 메서드 호출 시간 측정 (MethodMetricsPostProcessor 가 빈마다 하나씩 만듦)
+ * - 타이머 이름 metricName, 태그 class(구현 클래스), method, exception(정상이면 none)
+ * - 정상 호출 타이머는 메서드별로 캐시 -> 호출마다 태그를 만들거나 레지스트리에서 찾지 않음
+ *   예외가 난 호출만 CallTimers 에서 타이머를 찾음
+ * - 호출 횟수는 모두, 시간은 일부 호출만 측정 (히스토그램을 켜면 모두 측정, CallTimers)
+ */
+public class MethodTimingInterceptor implements MethodInterceptor {
+
+    private static final String NONE = "none";
+
+    private final CallTimers callTimers;
+    private final String metricName;
+    private final String className;
+    private final ConcurrentMap<Method, CallTimer> timers = new ConcurrentHashMap<>();
+
+    public MethodTimingInterceptor(CallTimers callTimers, String metricName, Class<?> targetClass) {
+        this.callTimers = callTimers;
+        this.metricName = metricName;
+        this.className = targetClass.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();  //toString, hashCode ...
+        }
+        long start = callTimers.sample() ? System.nanoTime() : CallTimers.NOT_SAMPLED;
+        try {
+            Object result = invocation.proceed();
+            CallTimer timer = timers.get(method);
+            if (timer == null) {
+                timer = timers.computeIfAbsent(method, m -> timer(m, NONE));
+            }
+            timer.record(elapsed(start));
+            return result;
+        } catch (Throwable e) {
+            timer(method, e.getClass().getSimpleName()).record(elapsed(start));
+            throw e;
+        }
+    }
+
+    private static long elapsed(long start) {
+        return start == CallTimers.NOT_SAMPLED ? CallTimers.NOT_SAMPLED : System.nanoTime() - start;
+    }
+
+    private CallTimer timer(Method method, String exception) {
+        return callTimers.timer(metricName, Tags.of("class", className, "method", method.getName(), "exception", exception));
+    }
+}
@@ -0,0 +1,19 @@
+package hello.itemservice.metrics;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 느린 조회 1건 (SlowQueryDataSource)
+ */
+@Data
+public class SlowQuery {
+
+    private final Instant time;
+    private final String sql;
+    private final List<String> binds;  //바인딩 파라미터 (인덱스 순)
+    private final long elapsedMillis;   //executeQuery / execute 호출 시간
+    private final String plan;          //EXPLAIN ANALYZE 결과, 끄거나 H2 가 아니면 null
+}
@@ -0,0 +1,249 @@
+package hello.itemservice.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 느린 조회 감지 DataSource - threshold 이상 걸린 SELECT 의 SQL, 바인딩 파라미터, 실행 계획을 SlowQueryLog 에 기록
+ * - JdbcTemplate, MyBatis, JPA/Querydsl 모두 이 DataSource 의 커넥션으로 PreparedStatement 를 만들므로 한 곳에서 감지
+ *   (트랜잭션 동기화는 DataSource 객체 기준이므로 트랜잭션 매니저와 저장소 모두 이 DataSource 를 사용해야 함 -> SlowQueryConfig)
+ * - SELECT/WITH 로 시작하는 PreparedStatement 만 감쌈, 수정 문장은 드라이버의 statement 그대로
+ * - 느리면 같은 커넥션에서 같은 바인딩으로 H2 EXPLAIN ANALYZE 를 한 번 더 실행 (실제 읽은 행 수 scanCount 포함)
+ *   -> 느린 조회는 두 번 실행되므로 threshold 는 평소 조회 시간보다 충분히 크게
+ * - executeQuery 시간만 측정 (H2 는 executeQuery 에서 결과를 만듦, 결과를 읽는 시간은 제외)
+ * - statement.getConnection(), resultSet.getStatement() 는 감싼 객체를 반환
+ *   (JdbcTemplate.queryForStream 은 ps.getConnection() 으로 커넥션을 반납하므로 드라이버 커넥션이 나가면
+ *   트랜잭션이 잡고 있는 커넥션과 다르다고 보고 트랜잭션 중간에 close 해버림)
+ */
+@Slf4j
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private final SlowQueryLog slowQueryLog;
+    private final long thresholdNanos;
+    private final boolean explain;
+
+    public SlowQueryDataSource(DataSource targetDataSource, SlowQueryLog slowQueryLog, Duration threshold, boolean explain) {
+        super(targetDataSource);
+        this.slowQueryLog = slowQueryLog;
+        this.thresholdNanos = threshold.toNanos();
+        this.explain = explain;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return watch(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return watch(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    private Connection watch(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static boolean isQuery(String sql) {
+        String trimmed = sql.stripLeading();
+        return trimmed.regionMatches(true, 0, "select", 0, 6) || trimmed.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "createStatement":
+                case "prepareStatement":
+                case "prepareCall":
+                    Statement statement = (Statement) invokeTarget(target, method, args);
+                    String sql = method.getName().equals("prepareStatement") && isQuery((String) args[0]) ? (String) args[0] : null;
+                    return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                            new Class<?>[]{method.getReturnType()}, new StatementHandler((Connection) proxy, target, statement, sql));
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SlowQueryWatched[" + target + "]";
+            }
+            return invokeTarget(target, method, args);
+        }
+    }
+
+    /**
+     * 커넥션에서 만든 모든 statement 를 감쌈, sql 이 있으면(SELECT PreparedStatement) 실행 시간 측정
+     */
+    private class StatementHandler implements InvocationHandler {
+
+        private final Connection connectionProxy;
+        private final Connection connection;
+        private final Statement target;
+        private final String sql;
+        private final Map<Integer, Object[]> binds = new TreeMap<>();  //인덱스 -> [setXxx 메서드, 인자...] (EXPLAIN 에 다시 바인딩)
+
+        StatementHandler(Connection connectionProxy, Connection connection, Statement target, String sql) {
+            this.connectionProxy = connectionProxy;
+            this.connection = connection;
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (sql != null && name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                Object result = invokeTarget(target, method, args);
+                binds.put((Integer) args[0], new Object[]{method, args});  //setString(1, ..), setInt(2, ..) ...
+                return result;
+            }
+            switch (name) {
+                case "getConnection":
+                    return connectionProxy;
+                case "clearParameters":
+                    binds.clear();
+                    break;
+                case "executeQuery":
+                    if (sql != null && args == null) {
+                        return watch((Statement) proxy, (ResultSet) execute(method));
+                    }
+                    return watch((Statement) proxy, (ResultSet) invokeTarget(target, method, args));
+                case "execute":
+                    if (sql != null && args == null) {
+                        return execute(method);
+                    }
+                    break;  //Statement.execute(sql) 등 다른 SQL
+                case "getResultSet":
+                case "getGeneratedKeys":
+                    return watch((Statement) proxy, (ResultSet) invokeTarget(target, method, args));
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SlowQueryWatched[" + target + "]";
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private Object execute(Method method) throws Throwable {
+            long start = System.nanoTime();
+            Object result = invokeTarget(target, method, null);
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= thresholdNanos) {
+                record(elapsed);
+            }
+            return result;
+        }
+
+        private void record(long elapsedNanos) {
+            List<String> bindValues = new ArrayList<>(binds.size());
+            for (Object[] bind : binds.values()) {
+                Object[] args = (Object[]) bind[1];
+                boolean setNull = ((Method) bind[0]).getName().equals("setNull");  //setNull(1, Types.INTEGER)
+                bindValues.add(setNull ? "null" : String.valueOf(args[1]));
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            String plan = explain ? explain() : null;
+            slowQueryLog.add(new SlowQuery(Instant.now(), sql, bindValues, elapsedMillis, plan));
+            log.info("slow query {}ms sql={} binds={}", elapsedMillis, sql, bindValues);
+        }
+
+        private ResultSet watch(Statement statementProxy, ResultSet resultSet) {
+            if (resultSet == null) {
+                return null;
+            }
+            return (ResultSet) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, new ResultSetHandler(statementProxy, resultSet));
+        }
+
+        /**
+         * 같은 커넥션(트랜잭션)에서 EXPLAIN ANALYZE, 실패해도 원래 조회에는 영향 없음
+         */
+        private String explain() {
+            try {
+                if (!"H2".equals(connection.getMetaData().getDatabaseProductName())) {
+                    return null;
+                }
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN ANALYZE " + sql)) {
+                    for (Object[] bind : binds.values()) {
+                        ((Method) bind[0]).invoke(statement, (Object[]) bind[1]);
+                    }
+                    StringBuilder plan = new StringBuilder();
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            plan.append(rs.getString(1));
+                        }
+                    }
+                    return plan.toString();
+                }
+            } catch (Exception e) {
+                log.debug("explain failed sql={}", sql, e);
+                return "explain failed: " + e;
+            }
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+
+        private final Statement statementProxy;
+        private final ResultSet target;
+
+        ResultSetHandler(Statement statementProxy, ResultSet target) {
+            this.statementProxy = statementProxy;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getStatement":
+                    return statementProxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SlowQueryWatched[" + target + "]";
+            }
+            return invokeTarget(target, method, args);
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
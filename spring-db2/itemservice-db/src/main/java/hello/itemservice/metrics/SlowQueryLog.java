@@ -0,0 +1,51 @@
+package hello.itemservice.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 느린 조회 링 버퍼 - 최근 capacity 건만 보관, 가득 차면 가장 오래된 것부터 덮어씀
+ * 느린 조회에서만 호출되므로 단순하게 synchronized
+ */
+public class SlowQueryLog {
+
+    private final SlowQuery[] buffer;
+    private long count;  //지금까지 추가된 수 (다음에 쓸 위치 = count % capacity)
+
+    public SlowQueryLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.buffer = new SlowQuery[capacity];
+    }
+
+    public synchronized void add(SlowQuery slowQuery) {
+        buffer[(int) (count % buffer.length)] = slowQuery;
+        count++;
+    }
+
+    /**
+     * 최근 것부터
+     */
+    public synchronized List<SlowQuery> findAll() {
+        int size = (int) Math.min(count, buffer.length);
+        List<SlowQuery> result = new ArrayList<>(size);
+        for (long i = count - 1; i >= count - size; i--) {
+            result.add(buffer[(int) (i % buffer.length)]);
+        }
+        return result;
+    }
+
+    /**
+     * 지금까지 기록된 느린 조회 수 (버퍼에서 밀려난 것 포함)
+     */
+    public synchronized long getTotalCount() {
+        return count;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(buffer, null);
+        count = 0;
+    }
+}
@@ -0,0 +1,61 @@
+package hello.itemservice.repository;
+
+import hello.itemservice.domain.Item;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * ItemRepository.streamAll 기본 구현
+ * 현재 페이지를 다 읽으면 마지막 id 를 lastId 로 다음 페이지 조회
+ */
+class ItemPageIterator implements Iterator<Item> {
+
+    static final int PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final String itemName;
+    private final Integer maxPrice;
+    private final boolean prefixMatch;
+
+    private Long lastId;
+    private List<Item> page = Collections.emptyList();
+    private int index = 0;
+    private boolean lastPage = false;
+
+    ItemPageIterator(ItemRepository itemRepository, ItemSearchCond cond) {
+        this.itemRepository = itemRepository;
+        this.itemName = cond.getItemName();
+        this.maxPrice = cond.getMaxPrice();
+        this.prefixMatch = cond.isPrefixMatch();
+        this.lastId = cond.getLastId();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (index < page.size()) {
+            return true;
+        }
+        if (lastPage) {
+            return false;
+        }
+        page = itemRepository.findAll(new ItemSearchCond(itemName, maxPrice, prefixMatch, PAGE_SIZE, lastId));
+        index = 0;
+        lastPage = page.size() < PAGE_SIZE;
+        if (page.isEmpty()) {
+            return false;
+        }
+        lastId = page.get(page.size() - 1).getId();
+        return true;
+    }
+
+    @Override
+    public Item next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(index++);
+    }
+}
@@ -2,17 +2,59 @@ package hello.itemservice.repository;
 
 import hello.itemservice.domain.Item;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface ItemRepository {
 
     Item save(Item item);
 
+    /**
+     * 여러 건 저장 (저장 후 각 item 에 id 가 채워짐)
+     * 기본 구현은 save 반복, DB 구현은 JDBC 배치로 재정의
+     */
+    default List<Item> saveAll(List<Item> items) {
+        for (Item item : items) {
+            save(item);
+        }
+        return items;
+    }
+
     void update(Long itemId, ItemUpdateDto updateParam);
 
     Optional<Item> findById(Long id);
 
+    /**
+     * id 목록으로 여러 건 조회 (없는 id 는 제외, id 오름차순)
+     * 기본 구현은 findById 반복, DB 구현은 in 조건 한 번으로 재정의
+     */
+    default List<Item> findAllById(Collection<Long> ids) {
+        List<Item> items = new ArrayList<>(ids.size());
+        for (Long id : new TreeSet<>(ids)) {
+            findById(id).ifPresent(items::add);
+        }
+        return items;
+    }
+
     List<Item> findAll(ItemSearchCond cond);
 
+    /**
+     * 대량 내보내기용 스트림 (id 순, lastId 이후부터 끝까지, pageSize 는 무시)
+     * - 사용 후 반드시 close (try-with-resources), DB 구현은 트랜잭션 안에서 사용
+     * - 기본 구현: findAll 을 키셋 페이지 단위로 반복 호출 (한 페이지 분량만 메모리에 올림)
+     * - DB 구현은 커서(fetch size)로 한 번에 읽도록 재정의
+     */
+    default Stream<Item> streamAll(ItemSearchCond cond) {
+        ItemPageIterator iterator = new ItemPageIterator(this, cond);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
 }
@@ -2,11 +2,24 @@ package hello.itemservice.repository;
 
 import lombok.Data;
 
+/**
+ * 검색 조건 + 키셋 페이징
+ * - prefixMatch : true 면 상품명이 itemName 으로 시작하는 것 (like 'x%', item_name 인덱스 범위 조회)
+ *                 false(기본값) 면 itemName 을 포함하는 것 (like '%x%', 인덱스를 쓸 수 없어 전체 스캔)
+ * - pageSize : 한 번에 가져올 개수 (null 이면 제한 없음)
+ * - lastId : 이전 페이지의 마지막 id, 이 id 보다 큰 것부터 조회 (null 이면 첫 페이지)
+ * 결과는 id 오름차순, OFFSET 대신 where id > lastId order by id limit pageSize 로 조회하므로
+ * 뒤쪽 페이지도 앞 페이지와 같은 비용으로 조회할 수 있다.
+ */
 @Data
 public class ItemSearchCond {
 
     private String itemName;
     private Integer maxPrice;
+    private boolean prefixMatch;
+
+    private Integer pageSize;
+    private Long lastId;
 
     public ItemSearchCond() {
     }
@@ -15,4 +28,30 @@ public class ItemSearchCond {
         this.itemName = itemName;
         this.maxPrice = maxPrice;
     }
+
+    public ItemSearchCond(String itemName, Integer maxPrice, Integer pageSize, Long lastId) {
+        this.itemName = itemName;
+        this.maxPrice = maxPrice;
+        this.pageSize = pageSize;
+        this.lastId = lastId;
+    }
+
+    public ItemSearchCond(String itemName, Integer maxPrice, boolean prefixMatch, Integer pageSize, Long lastId) {
+        this(itemName, maxPrice, pageSize, lastId);
+        this.prefixMatch = prefixMatch;
+    }
+
+    /**
+     * like 에 바인딩할 상품명 패턴 - 'x%' 또는 '%x%'
+     */
+    public String itemNamePattern() {
+        return prefixMatch ? itemName + "%" : "%" + itemName + "%";
+    }
+
+    /**
+     * 메모리 구현용 상품명 비교 (itemName 이 있을 때만 호출)
+     */
+    public boolean matchesItemName(String name) {
+        return name != null && (prefixMatch ? name.startsWith(itemName) : name.contains(itemName));
+    }
 }
@@ -0,0 +1,132 @@
+package hello.itemservice.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * ItemRepository 앞에 두는 findById 캐시 (데코레이터)
+ * - 크기 제한(W-TinyLFU) + TTL, Caffeine 사용
+ * - save/update 시 해당 id 를 캐시에서 제거(write-through 무효화)
+ *   트랜잭션 안이면 완료(커밋/롤백) 후에 한 번 더 제거
+ *   -> 커밋 전에 다른 요청이 옛 값을 다시 캐시하거나, 롤백된 값이 캐시에 남는 것을 방지
+ * - 쓰기 트랜잭션 안에서 조회한 값은 커밋 전 값일 수 있으므로 캐시에 넣지 않음
+ * - 캐시에 없으면 cache.get(id, loader) 로 조회 -> 조회 중인 키의 무효화는 조회가 끝날 때까지 기다렸다가 제거
+ *   (조회 후 put 하면 수정 전에 읽은 값을 커밋 후 무효화보다 늦게 넣어서 TTL 까지 옛 값이 남을 수 있음)
+ *   같은 id 를 동시에 조회하면 한 번만 조회
+ * - 캐시된 객체를 호출하는 쪽에서 수정할 수 있으므로 복사해서 저장/반환
+ */
+public class CachingItemRepository implements ItemRepository {
+
+    private final ItemRepository target;
+    private final Cache<Long, Item> cache;
+
+    public CachingItemRepository(ItemRepository target, long maximumSize, Duration ttl) {
+        this.target = target;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Item save(Item item) {
+        Item savedItem = target.save(item);
+        invalidate(savedItem.getId());
+        return savedItem;
+    }
+
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        List<Item> savedItems = target.saveAll(items);
+        savedItems.forEach(item -> invalidate(item.getId()));
+        return savedItems;
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        target.update(itemId, updateParam);
+        invalidate(itemId);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        if (inWriteTransaction()) {
+            Item cached = cache.getIfPresent(id);
+            return cached != null ? Optional.of(copy(cached)) : target.findById(id);
+        }
+        Item item = cache.get(id, key -> target.findById(key).map(this::copy).orElse(null));  //없는 id(null)는 캐시하지 않음
+        return Optional.ofNullable(item).map(this::copy);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return target.findAllById(ids);
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        return target.findAll(cond);
+    }
+
+    @Override
+    public Stream<Item> streamAll(ItemSearchCond cond) {
+        return target.streamAll(cond);
+    }
+
+    /**
+     * 적중/실패/제거 횟수 (캐시 크기 조정용)
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 캐시 통계를 메트릭으로 노출 (cache.gets, cache.puts, cache.evictions ... cache 태그 = cacheName)
+     */
+    public void bindTo(MeterRegistry registry, String cacheName) {
+        CaffeineCacheMetrics.monitor(registry, cache, cacheName);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void invalidate(Long itemId) {
+        cache.invalidate(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(itemId);
+                }
+            });
+        }
+    }
+
+    private boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Item copy(Item item) {
+        Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+        copy.setId(item.getId());
+        return copy;
+    }
+}
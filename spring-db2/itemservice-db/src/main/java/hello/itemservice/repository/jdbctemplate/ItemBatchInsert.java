@@ -0,0 +1,51 @@
+package hello.itemservice.repository.jdbctemplate;
+
+import hello.itemservice.domain.Item;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC 배치 insert + 생성된 id 조회 (JdbcTemplate V1~V3 saveAll 공통)
+ * JdbcTemplate.batchUpdate, SimpleJdbcInsert.executeBatch 는 생성된 키를 돌려주지 않으므로
+ * 커넥션을 직접 받아서 addBatch -> executeBatch -> getGeneratedKeys
+ * MySQL 은 URL 에 rewriteBatchedStatements=true 가 있어야 한 번에 전송됨
+ */
+class ItemBatchInsert {
+
+    static final int BATCH_SIZE = 1000;
+
+    private static final String SQL = "insert into item (item_name, price, quantity) values (?, ?, ?)";
+
+    static List<Item> saveAll(JdbcTemplate template, List<Item> items) {
+        return template.execute((ConnectionCallback<List<Item>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(SQL, new String[]{"id"})) {
+                for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+                    List<Item> batch = items.subList(from, Math.min(from + BATCH_SIZE, items.size()));
+                    for (Item item : batch) {
+                        ps.setString(1, item.getItemName());
+                        ps.setObject(2, item.getPrice(), Types.INTEGER);
+                        ps.setObject(3, item.getQuantity(), Types.INTEGER);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (Item item : batch) {
+                            if (!keys.next()) {
+                                throw new DataRetrievalFailureException("generated key not returned for batch insert");
+                            }
+                            item.setId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return items;
+        });
+    }
+}
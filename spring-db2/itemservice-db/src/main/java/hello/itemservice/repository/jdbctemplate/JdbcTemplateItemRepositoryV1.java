@@ -48,6 +48,11 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
         return item;
     }
 
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        return ItemBatchInsert.saveAll(template, items);
+    }
+
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
         String sql = "update item set item_name=?, price=?, quantity=? where id=?";
@@ -74,17 +79,19 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
     public List<Item> findAll(ItemSearchCond cond) {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
+        Long lastId = cond.getLastId();
 
-        String sql = "select id, Item_name, price, quantity, from item";
+        String sql = "select id, item_name, price, quantity from item";
 
         //동적 쿼리
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
+        if (StringUtils.hasText(itemName) || maxPrice != null || lastId != null) {
             sql += " where";
         }
         boolean andFlag = false;
         List<Object> param = new ArrayList<>();
         if (StringUtils.hasText(itemName)) {
-            sql += " item_name like concat('%',?,'%')";
+            //앞부분 일치는 item_name 인덱스 범위 조회, 포함 검색은 전체 스캔
+            sql += cond.isPrefixMatch() ? " item_name like concat(?,'%')" : " item_name like concat('%',?,'%')";
             param.add(itemName);
             andFlag = true;
         }
@@ -94,6 +101,20 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
             }
             sql += " price <= ?";
             param.add(maxPrice);
+            andFlag = true;
+        }
+        //키셋 페이징 (pk 인덱스로 lastId 위치부터 바로 읽음)
+        if (lastId != null) {
+            if (andFlag) {
+                sql += " and";
+            }
+            sql += " id > ?";
+            param.add(lastId);
+        }
+        sql += " order by id";
+        if (cond.getPageSize() != null) {
+            sql += " limit ?";
+            param.add(cond.getPageSize());
         }
         log.info("sql={}", sql);
         return template.query(sql, itemRowMapper(), param.toArray());
@@ -105,8 +126,8 @@ public class JdbcTemplateItemRepositoryV1 implements ItemRepository {
             Item item = new Item();
             item.setId(rs.getLong("id"));
             item.setItemName(rs.getString("item_name"));
-            item.setPrice(rs.getInt("price"));
-            item.setQuantity(rs.getInt("quantity"));
+            item.setPrice(rs.getObject("price", Integer.class));  //getInt 는 null 을 0 으로 읽음
+            item.setQuantity(rs.getObject("quantity", Integer.class));
             return item;
         };
     }
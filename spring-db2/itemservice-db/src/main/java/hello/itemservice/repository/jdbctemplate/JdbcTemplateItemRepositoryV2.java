@@ -56,6 +56,11 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
         return item;
     }
 
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        return ItemBatchInsert.saveAll(template.getJdbcTemplate(), items);
+    }
+
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
         String sql = "update item set item_name=:itemName, price=:price, quantity=:quantity where id=:id";
@@ -85,18 +90,19 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
     public List<Item> findAll(ItemSearchCond cond) {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
+        Long lastId = cond.getLastId();
 
         SqlParameterSource param = new BeanPropertySqlParameterSource(cond);  //param 넘기는 방법 1
 
-        String sql = "select id, Item_name, price, quantity, from item";
+        String sql = "select id, item_name, price, quantity from item";
 
         //동적 쿼리
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
+        if (StringUtils.hasText(itemName) || maxPrice != null || lastId != null) {
             sql += " where";
         }
         boolean andFlag = false;
         if (StringUtils.hasText(itemName)) {
-            sql += " item_name like concat('%',:itemName,'%')";
+            sql += cond.isPrefixMatch() ? " item_name like concat(:itemName,'%')" : " item_name like concat('%',:itemName,'%')";
             andFlag = true;
         }
         if (maxPrice != null) {
@@ -104,6 +110,18 @@ public class JdbcTemplateItemRepositoryV2 implements ItemRepository {
                 sql += " and";
             }
             sql += " price <= :maxPrice";
+            andFlag = true;
+        }
+        //키셋 페이징 (pk 인덱스로 lastId 위치부터 바로 읽음)
+        if (lastId != null) {
+            if (andFlag) {
+                sql += " and";
+            }
+            sql += " id > :lastId";
+        }
+        sql += " order by id";
+        if (cond.getPageSize() != null) {
+            sql += " limit :pageSize";
         }
         log.info("sql={}", sql);
         return template.query(sql, param, itemRowMapper());
@@ -7,6 +7,7 @@ import hello.itemservice.repository.ItemUpdateDto;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -19,9 +20,12 @@ import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * SimpleJdbcInsert : JdbcTemplate은 INSERT SQL를 직접 작성하지 않아도 되도록 SimpleJdbcInsert 제공
@@ -31,11 +35,17 @@ import java.util.Optional;
 @Repository
 public class JdbcTemplateItemRepositoryV3 implements ItemRepository {
 
+    static final int STREAM_FETCH_SIZE = 1000;
+
     private final NamedParameterJdbcTemplate template;
+    private final NamedParameterJdbcTemplate streamTemplate;  //streamAll 용 (fetch size 설정)
     private final SimpleJdbcInsert jdbcInsert;  //INSERT SQL를 직접 작성하지 않아도 되도록
 
     public JdbcTemplateItemRepositoryV3(DataSource dataSource) {
         this.template = new NamedParameterJdbcTemplate(dataSource);
+        JdbcTemplate streamJdbcTemplate = new JdbcTemplate(dataSource);
+        streamJdbcTemplate.setFetchSize(STREAM_FETCH_SIZE);
+        this.streamTemplate = new NamedParameterJdbcTemplate(streamJdbcTemplate);
         this.jdbcInsert = new SimpleJdbcInsert(dataSource)
                 .withTableName("item")
                 .usingGeneratedKeyColumns("id");
@@ -51,6 +61,14 @@ public class JdbcTemplateItemRepositoryV3 implements ItemRepository {
         return item;
     }
 
+    /**
+     * SimpleJdbcInsert.executeBatch 는 생성된 id 를 돌려주지 않으므로 ItemBatchInsert 사용
+     */
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        return ItemBatchInsert.saveAll(template.getJdbcTemplate(), items);
+    }
+
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
         String sql = "update item set item_name=:itemName, price=:price, quantity=:quantity where id=:id";
@@ -76,22 +94,52 @@ public class JdbcTemplateItemRepositoryV3 implements ItemRepository {
         }
     }
 
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();  //in () 는 문법 오류
+        }
+        String sql = "select id, item_name, price, quantity from item where id in (:ids) order by id";
+        return template.query(sql, Map.of("ids", ids), itemRowMapper());
+    }
+
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
+        SqlParameterSource param = new BeanPropertySqlParameterSource(cond);  //param 넘기는 방법 1
+
+        String sql = searchSql(cond);
+        if (cond.getPageSize() != null) {
+            sql += " limit :pageSize";
+        }
+        log.info("sql={}", sql);
+        return template.query(sql, param, itemRowMapper());
+    }
+
+    /**
+     * ResultSet 을 열어둔 채 한 행씩 매핑 (드라이버가 fetch size 만큼씩 가져오므로 전체를 메모리에 올리지 않음)
+     * MySQL 은 URL 에 useCursorFetch=true 가 있어야 fetch size 가 적용됨
+     */
+    @Override
+    public Stream<Item> streamAll(ItemSearchCond cond) {
+        String sql = searchSql(cond);
+        log.info("sql={}", sql);
+        return streamTemplate.queryForStream(sql, new BeanPropertySqlParameterSource(cond), itemRowMapper());
+    }
+
+    private String searchSql(ItemSearchCond cond) {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
+        Long lastId = cond.getLastId();
 
-        SqlParameterSource param = new BeanPropertySqlParameterSource(cond);  //param 넘기는 방법 1
-
-        String sql = "select id, Item_name, price, quantity, from item";
+        String sql = "select id, item_name, price, quantity from item";
 
         //동적 쿼리
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
+        if (StringUtils.hasText(itemName) || maxPrice != null || lastId != null) {
             sql += " where";
         }
         boolean andFlag = false;
         if (StringUtils.hasText(itemName)) {
-            sql += " item_name like concat('%',:itemName,'%')";
+            sql += cond.isPrefixMatch() ? " item_name like concat(:itemName,'%')" : " item_name like concat('%',:itemName,'%')";
             andFlag = true;
         }
         if (maxPrice != null) {
@@ -99,9 +147,16 @@ public class JdbcTemplateItemRepositoryV3 implements ItemRepository {
                 sql += " and";
             }
             sql += " price <= :maxPrice";
+            andFlag = true;
         }
-        log.info("sql={}", sql);
-        return template.query(sql, param, itemRowMapper());
+        //키셋 페이징 (pk 인덱스로 lastId 위치부터 바로 읽음)
+        if (lastId != null) {
+            if (andFlag) {
+                sql += " and";
+            }
+            sql += " id > :lastId";
+        }
+        return sql + " order by id";
     }
 
     //데이터 베이스 조회 결과를 객체로 변환
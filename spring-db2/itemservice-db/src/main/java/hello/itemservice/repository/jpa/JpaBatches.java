@@ -0,0 +1,29 @@
+package hello.itemservice.repository.jpa;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * 여러 엔티티 저장 (JpaItemRepository, JpaItemRepositoryV3 saveAll 공통)
+ * BATCH_SIZE(hibernate.jdbc.batch_size 와 같은 값) 건마다 flush -> insert 가 JDBC 배치로 전송됨
+ * flush 후 clear 해서 저장한 엔티티가 영속성 컨텍스트에 계속 쌓이지 않도록 함 (저장한 엔티티는 준영속 상태가 됨)
+ *
+ * IDENTITY 전략은 persist 시점에 insert 를 바로 실행해야 id 를 알 수 있으므로 하이버네이트가 배치를 사용하지 않는다.
+ * 배치가 적용되려면 시퀀스 등 insert 전에 id 를 얻을 수 있는 전략이 필요함
+ */
+public abstract class JpaBatches {
+
+    public static final int BATCH_SIZE = 1000;
+
+    public static <T> List<T> persistAll(EntityManager em, List<T> entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            em.persist(entities.get(i));
+            if ((i + 1) % BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        return entities;
+    }
+}
@@ -13,6 +13,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Slf4j
 @Repository
@@ -31,6 +32,11 @@ public class JpaItemRepository implements ItemRepository {
         return item;
     }
 
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        return JpaBatches.persistAll(em, items);
+    }
+
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
         Item findItem = em.find(Item.class, itemId);
@@ -47,15 +53,32 @@ public class JpaItemRepository implements ItemRepository {
 
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
+        TypedQuery<Item> query = searchQuery(cond);
+        if (cond.getPageSize() != null) {
+            query.setMaxResults(cond.getPageSize());  //limit
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<Item> streamAll(ItemSearchCond cond) {
+        TypedQuery<Item> query = searchQuery(cond)
+                .setHint(JpaStreams.HINT_FETCH_SIZE, JpaStreams.FETCH_SIZE)
+                .setHint(JpaStreams.HINT_READ_ONLY, true);
+        return JpaStreams.clearEvery(em, query.getResultStream());
+    }
+
+    private TypedQuery<Item> searchQuery(ItemSearchCond cond) {
         String jpql = "select i from Item i";
         Integer maxPrice = cond.getMaxPrice();
         String itemName = cond.getItemName();
-        if (StringUtils.hasText(itemName) || maxPrice != null) {
+        Long lastId = cond.getLastId();
+        if (StringUtils.hasText(itemName) || maxPrice != null || lastId != null) {
             jpql += " where";
         }
         boolean andFlag = false;
         if (StringUtils.hasText(itemName)) {
-            jpql += " i.itemName like concat('%',:itemName,'%')";
+            jpql += cond.isPrefixMatch() ? " i.itemName like concat(:itemName,'%')" : " i.itemName like concat('%',:itemName,'%')";
             andFlag = true;
         }
         if (maxPrice != null) {
@@ -63,7 +86,15 @@ public class JpaItemRepository implements ItemRepository {
                 jpql += " and";
             }
             jpql += " i.price <= :maxPrice";
+            andFlag = true;
+        }
+        if (lastId != null) {
+            if (andFlag) {
+                jpql += " and";
+            }
+            jpql += " i.id > :lastId";
         }
+        jpql += " order by i.id";
         log.info("jpql={}", jpql);
         TypedQuery<Item> query = em.createQuery(jpql, Item.class);
         if (StringUtils.hasText(itemName)) {
@@ -72,6 +103,9 @@ public class JpaItemRepository implements ItemRepository {
         if (maxPrice != null) {
             query.setParameter("maxPrice", maxPrice);
         }
-        return query.getResultList();
+        if (lastId != null) {
+            query.setParameter("lastId", lastId);
+        }
+        return query;
     }
 }
@@ -5,6 +5,8 @@ import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -27,6 +29,11 @@ public class JpaItemRepositoryV2 implements ItemRepository {
         return repository.save(item);
     }
 
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        return repository.saveAll(items);
+    }
+
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
         Item findItem = repository.findById(itemId).orElseThrow();
@@ -46,12 +53,18 @@ public class JpaItemRepositoryV2 implements ItemRepository {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
 
+        if (cond.getPageSize() != null || cond.getLastId() != null) {
+            Pageable limit = cond.getPageSize() == null ? Pageable.unpaged() : PageRequest.of(0, cond.getPageSize());
+            return repository.findItemsAfter(StringUtils.hasText(itemName) ? cond.itemNamePattern() : null,
+                    maxPrice, cond.getLastId(), limit);
+        }
+
         //스프링 데이터 JPA는 동적 쿼리에 약하기 때문에, 이후 Querydsl로 개선해보자. (그래도 조건이 2개 정도 밖에 없으면 분기할 수 도 있음..)
         if (StringUtils.hasText(itemName) && maxPrice != null) {
             //return repository.findByItemNameLikeAndPriceLessThanEqual("%" + itemName +"%", maxPrice);
-            return repository.findItems("%" + itemName + "%", maxPrice);
+            return repository.findItems(cond.itemNamePattern(), maxPrice);
         } else if (StringUtils.hasText(itemName)) {
-            return repository.findByItemNameLike("%" + itemName + "%");
+            return repository.findByItemNameLike(cond.itemNamePattern());
         } else if (maxPrice != null) {
             return repository.findByPriceLessThanEqual(maxPrice);
         } else {
@@ -2,6 +2,7 @@ package hello.itemservice.repository.jpa;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import hello.itemservice.domain.Item;
 import hello.itemservice.domain.QItem;
@@ -13,8 +14,11 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static hello.itemservice.domain.QItem.item;
 
@@ -36,6 +40,11 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         return item;
     }
 
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        return JpaBatches.persistAll(em, items);
+    }
+
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
         Item findItem = em.find(Item.class, itemId);
@@ -80,25 +89,50 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         return result;
     }
 
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return query
+                .selectFrom(item)
+                .where(item.id.in(ids))
+                .orderBy(item.id.asc())
+                .fetch();
+    }
+
     /**
      * 개선된 findAll(findAllOld를 리팩토링) 동적 쿼리
      */
     @Override
     public List<Item> findAll(ItemSearchCond cond) {
 
-        String itemName = cond.getItemName();
-        Integer maxPrice = cond.getMaxPrice();
+        JPAQuery<Item> select = searchQuery(cond);
+        if (cond.getPageSize() != null) {
+            select.limit(cond.getPageSize());
+        }
+        return select.fetch();
+    }
+
+    @Override
+    public Stream<Item> streamAll(ItemSearchCond cond) {
+        JPAQuery<Item> select = searchQuery(cond)
+                .setHint(JpaStreams.HINT_FETCH_SIZE, JpaStreams.FETCH_SIZE)
+                .setHint(JpaStreams.HINT_READ_ONLY, true);
+        return JpaStreams.clearEvery(em, select.stream());
+    }
 
+    private JPAQuery<Item> searchQuery(ItemSearchCond cond) {
         return query
                 .select(item)
                 .from(item)
-                .where(likeItemName(itemName), maxPrice(maxPrice))
-                .fetch();
+                .where(likeItemName(cond), maxPrice(cond.getMaxPrice()), afterId(cond.getLastId()))
+                .orderBy(item.id.asc());
     }
 
-    private BooleanExpression likeItemName(String itemName) {
-        if (StringUtils.hasText(itemName)) {
-            return item.itemName.like("%" + itemName + "%");
+    private BooleanExpression likeItemName(ItemSearchCond cond) {
+        if (StringUtils.hasText(cond.getItemName())) {
+            return item.itemName.like(cond.itemNamePattern());  //'x%' 또는 '%x%'
         }
         return null;
     }
@@ -108,4 +142,10 @@ public class JpaItemRepositoryV3 implements ItemRepository {
         }
         return null;
     }
+    private BooleanExpression afterId(Long lastId) {
+        if (lastId != null) {
+            return item.id.gt(lastId);
+        }
+        return null;
+    }
 }
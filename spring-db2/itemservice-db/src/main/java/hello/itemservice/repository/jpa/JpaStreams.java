@@ -0,0 +1,32 @@
+package hello.itemservice.repository.jpa;
+
+import org.hibernate.annotations.QueryHints;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * JPA 스트림 조회 공통 (getResultStream -> 하이버네이트 ScrollableResults)
+ * - FETCH_SIZE : 드라이버가 한 번에 가져오는 행 수 (QueryHints.HINT_FETCH_SIZE)
+ * - 읽기 전용 힌트(QueryHints.HINT_READONLY)로 변경 감지용 스냅샷을 만들지 않음
+ * - 스트림으로 읽은 엔티티도 영속성 컨텍스트에 계속 쌓이므로 CLEAR_INTERVAL 건마다 em.clear()
+ *   -> 아직 flush 하지 않은 변경도 버려지므로 읽기 전용 트랜잭션에서만 사용
+ */
+public abstract class JpaStreams {
+
+    public static final int FETCH_SIZE = 1000;
+    public static final int CLEAR_INTERVAL = 1000;
+
+    public static final String HINT_FETCH_SIZE = QueryHints.FETCH_SIZE;
+    public static final String HINT_READ_ONLY = QueryHints.READ_ONLY;
+
+    public static <T> Stream<T> clearEvery(EntityManager em, Stream<T> stream) {
+        AtomicLong count = new AtomicLong();
+        return stream.peek(entity -> {
+            if (count.incrementAndGet() % CLEAR_INTERVAL == 0) {
+                em.clear();
+            }
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package hello.itemservice.repository.jpa;
 
 import hello.itemservice.domain.Item;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,4 +20,13 @@ public interface SpringDataJpaItemRepository extends JpaRepository<Item, Long> {
     //쿼리 직접 실행
     @Query("select i from Item i where i.itemName like :itemName and i.price <= :price")
     List<Item> findItems(@Param("itemName") String itemName, @Param("price") Integer price);
+
+    //키셋 페이징 (조건이 4개로 늘어나 분기 대신 null 이면 조건을 무시하도록 작성, limit 은 Pageable 로 전달)
+    @Query("select i from Item i" +
+            " where (:itemName is null or i.itemName like :itemName)" +
+            " and (:price is null or i.price <= :price)" +
+            " and (:lastId is null or i.id > :lastId)" +
+            " order by i.id")
+    List<Item> findItemsAfter(@Param("itemName") String itemName, @Param("price") Integer price,
+                              @Param("lastId") Long lastId, Pageable pageable);
  }
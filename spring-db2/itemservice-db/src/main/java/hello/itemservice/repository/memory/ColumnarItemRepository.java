@@ -0,0 +1,169 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ObjectUtils;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 컬럼 단위 메모리 저장소
+ * - Item 객체(헤더 + Long/Integer 박싱) 대신 컬럼별 primitive 배열에 저장
+ * - id 는 이 저장소가 1부터 순서대로 부여하므로 slot = id - 1 (id 컬럼, id -> slot 변환용 Map 이 필요 없음)
+ * - Item 객체는 조회할 때만 생성
+ * - price, quantity 의 null 은 값 배열과 별도로 BitSet 에 표시 (int 의 모든 값을 가격/수량으로 사용할 수 있도록)
+ */
+@Repository
+public class ColumnarItemRepository implements ItemRepository {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private String[] itemNames = new String[INITIAL_CAPACITY];
+    private int[] prices = new int[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private final BitSet nullPrices = new BitSet();  //slot -> price 가 null
+    private final BitSet nullQuantities = new BitSet();
+    private int size = 0;
+
+    @Override
+    public Item save(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (size == prices.length) {
+                grow();
+            }
+            int slot = size++;
+            write(slot, item.getItemName(), item.getPrice(), item.getQuantity());
+            item.setId(idOf(slot));
+            return item;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        lock.writeLock().lock();  //락을 한 번만 잡고 저장 (save 의 쓰기 락은 재진입)
+        try {
+            for (Item item : items) {
+                save(item);
+            }
+            return items;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(itemId);
+            if (slot < 0) {
+                throw new NoSuchElementException("item not found itemId=" + itemId);
+            }
+            write(slot, updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotOf(id);
+            return slot < 0 ? Optional.empty() : Optional.of(toItem(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        String itemName = cond.getItemName();
+        Integer maxPrice = cond.getMaxPrice();
+        boolean hasName = !ObjectUtils.isEmpty(itemName);
+        int limit = cond.getPageSize() == null ? Integer.MAX_VALUE : cond.getPageSize();
+
+        lock.readLock().lock();
+        try {
+            List<Item> result = new ArrayList<>();
+            //slot 순서 = id 순서이므로 lastId 다음 slot 부터 읽고 pageSize 만큼 찾으면 중단 (뒤쪽 페이지도 앞 페이지와 같은 비용)
+            for (int slot = startSlot(cond.getLastId()); slot < size && result.size() < limit; slot++) {
+                //가격 조건(int 비교)을 먼저 확인하고 통과한 경우에만 문자열 비교
+                if (maxPrice != null && (nullPrices.get(slot) || prices[slot] > maxPrice)) {
+                    continue;
+                }
+                if (hasName && !cond.matchesItemName(itemNames[slot])) {
+                    continue;
+                }
+                result.add(toItem(slot));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clearStore() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(itemNames, 0, size, null);
+            nullPrices.clear();
+            nullQuantities.clear();
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int startSlot(Long lastId) {
+        if (lastId == null || lastId < 1) {
+            return 0;
+        }
+        return (int) Math.min(lastId, size);  //id lastId + 1 의 slot
+    }
+
+    private int slotOf(Long id) {
+        if (id == null || id < 1 || id > size) {
+            return -1;
+        }
+        return (int) (id - 1);
+    }
+
+    private long idOf(int slot) {
+        return slot + 1L;
+    }
+
+    private void write(int slot, String itemName, Integer price, Integer quantity) {
+        itemNames[slot] = itemName;
+        prices[slot] = price == null ? 0 : price;
+        nullPrices.set(slot, price == null);
+        quantities[slot] = quantity == null ? 0 : quantity;
+        nullQuantities.set(slot, quantity == null);
+    }
+
+    private Item toItem(int slot) {
+        Item item = new Item(
+                itemNames[slot],
+                nullPrices.get(slot) ? null : prices[slot],
+                nullQuantities.get(slot) ? null : quantities[slot]);
+        item.setId(idOf(slot));
+        return item;
+    }
+
+    private void grow() {
+        int capacity = prices.length * 2;
+        itemNames = Arrays.copyOf(itemNames, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+    }
+}
@@ -8,27 +8,59 @@ import org.springframework.stereotype.Repository;
 import org.springframework.util.ObjectUtils;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * 동시성 고려
+ * - HashMap -> ConcurrentSkipListMap (여러 스레드가 동시에 save 해도 데이터 유실 X, id 순서로 정렬되어 있어 키셋 페이징은 lastId 이후부터 읽음)
+ * - long sequence -> AtomicLong (++sequence 는 원자적이지 않아서 id 중복 발생 가능)
+ * - update 는 computeIfPresent 로 같은 id에 대해 원자적으로 교체
+ *   (경합 시 함수가 다시 실행될 수 있으나 인덱스 추가/제거는 마지막 실행 기준으로 맞춰지고, 후보는 실제 값으로 다시 확인)
+ *
+ * 보조 인덱스 (findAll 이 전체를 스캔하지 않고 후보만 확인)
+ * - priceIndex : 가격 -> id, maxPrice 범위 조회 (headMap)
+ * - nameIndex : 상품명 3-gram -> id, 부분 문자열 검색 (검색어의 모든 3-gram 을 가진 id 의 교집합)
+ * 인덱스로 찾은 후보는 실제 값으로 다시 한번 조건을 확인한다.
+ */
 @Repository
 public class MemoryItemRepository implements ItemRepository {
 
-    private static final Map<Long, Item> store = new HashMap<>(); //static
-    private static long sequence = 0L; //static
+    private static final int GRAM = 3;
+
+    private static final ConcurrentNavigableMap<Long, Item> store = new ConcurrentSkipListMap<>(); //static, id 순
+    private static final AtomicLong sequence = new AtomicLong(); //static
+
+    private static final ConcurrentNavigableMap<Integer, Set<Long>> priceIndex = new ConcurrentSkipListMap<>(); //static
+    private static final ConcurrentMap<String, Set<Long>> nameIndex = new ConcurrentHashMap<>(); //static
 
     @Override
     public Item save(Item item) {
-        item.setId(++sequence);
+        item.setId(sequence.incrementAndGet());
+        addIndex(item);  //인덱스에 먼저 추가 (store 에 없는 후보는 조회 시 무시됨)
         store.put(item.getId(), item);
         return item;
     }
 
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
-        Item findItem = findById(itemId).orElseThrow();
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setPrice(updateParam.getPrice());
-        findItem.setQuantity(updateParam.getQuantity());
+        //기존 객체를 직접 수정하면 조회하는 쪽에서 수정 중인 값(일부만 바뀐 상태)을 볼 수 있으므로 새 객체로 교체
+        //인덱스 갱신도 computeIfPresent 안에서 수행해서 같은 id 의 수정끼리 순서가 섞이지 않도록
+        Item updated = store.computeIfPresent(itemId, (id, findItem) -> {
+            Item item = new Item(updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+            item.setId(id);
+            addIndex(item);
+            removeIndex(findItem, item);
+            return item;
+        });
+        if (updated == null) {
+            throw new NoSuchElementException("item not found itemId=" + itemId);
+        }
     }
 
     @Override
@@ -40,23 +72,120 @@ public class MemoryItemRepository implements ItemRepository {
     public List<Item> findAll(ItemSearchCond cond) {
         String itemName = cond.getItemName();
         Integer maxPrice = cond.getMaxPrice();
-        return store.values().stream()
+        return candidates(itemName, maxPrice, cond.getLastId())
                 .filter(item -> {
                     if (ObjectUtils.isEmpty(itemName)) {
                         return true;
                     }
-                    return item.getItemName().contains(itemName);
+                    return cond.matchesItemName(item.getItemName());
                 }).filter(item -> {
                     if (maxPrice == null) {
                         return true;
                     }
-                    return item.getPrice() <= maxPrice;
+                    return item.getPrice() != null && item.getPrice() <= maxPrice;
                 })
+                .limit(cond.getPageSize() == null ? Long.MAX_VALUE : cond.getPageSize())
                 .collect(Collectors.toList());
     }
 
     public void clearStore() {
         store.clear();
+        priceIndex.clear();
+        nameIndex.clear();
+    }
+
+    /**
+     * 조건에 따라 확인할 후보 선택 (lastId 이후, id 순)
+     * 1. 상품명이 3글자 이상이면 3-gram 인덱스
+     * 2. 가격 조건이 있으면 가격 인덱스
+     * -> 인덱스로 찾은 후보 id 만 정렬
+     * 3. 둘 다 사용할 수 없으면 전체 - store 가 id 순이므로 lastId 다음부터 읽고 pageSize 만큼 찾으면 중단
+     */
+    private Stream<Item> candidates(String itemName, Integer maxPrice, Long lastId) {
+        Stream<Long> ids;
+        if (!ObjectUtils.isEmpty(itemName) && itemName.length() >= GRAM) {
+            ids = nameCandidates(itemName).stream();
+        } else if (maxPrice != null) {
+            ids = priceIndex.headMap(maxPrice, true).values().stream()
+                    .flatMap(Set::stream);
+        } else {
+            return (lastId == null ? store : store.tailMap(lastId, false)).values().stream();
+        }
+        return ids.distinct()
+                .filter(id -> lastId == null || id > lastId)
+                .sorted()
+                .map(store::get)
+                .filter(Objects::nonNull);
+    }
+
+    private Set<Long> nameCandidates(String itemName) {
+        //가장 작은 posting 부터 교집합
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : grams(itemName)) {
+            Set<Long> posting = nameIndex.get(gram);
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    private void addIndex(Item item) {
+        if (item.getPrice() != null) {
+            addPosting(priceIndex, item.getPrice(), item.getId());
+        }
+        for (String gram : grams(item.getItemName())) {
+            addPosting(nameIndex, gram, item.getId());
+        }
+    }
+
+    /**
+     * 이전 값의 인덱스 중 새 값과 겹치지 않는 것만 제거
+     */
+    private void removeIndex(Item oldItem, Item newItem) {
+        if (oldItem.getPrice() != null && !oldItem.getPrice().equals(newItem.getPrice())) {
+            removePosting(priceIndex, oldItem.getPrice(), oldItem.getId());
+        }
+        Set<String> newGrams = grams(newItem.getItemName());
+        for (String gram : grams(oldItem.getItemName())) {
+            if (!newGrams.contains(gram)) {
+                removePosting(nameIndex, gram, oldItem.getId());
+            }
+        }
+    }
+
+    private <K> void addPosting(ConcurrentMap<K, Set<Long>> index, K key, Long id) {
+        index.compute(key, (k, posting) -> {
+            Set<Long> result = (posting == null) ? ConcurrentHashMap.newKeySet() : posting;
+            result.add(id);
+            return result;
+        });
+    }
+
+    private <K> void removePosting(ConcurrentMap<K, Set<Long>> index, K key, Long id) {
+        //비어있는 posting 은 키까지 제거 (추가/제거 모두 compute 안에서 처리해야 동시에 추가되는 id 가 유실되지 않음)
+        index.computeIfPresent(key, (k, posting) -> {
+            posting.remove(id);
+            return posting.isEmpty() ? null : posting;
+        });
+    }
+
+    private static Set<String> grams(String value) {
+        if (value == null || value.length() < GRAM) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
     }
 
 }
@@ -0,0 +1,228 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ObjectUtils;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 힙 밖(Direct ByteBuffer)에 저장하는 메모리 저장소
+ * - GC 대상이 되는 객체는 청크 버퍼 참조뿐이므로 데이터가 많아져도 GC 부담이 늘지 않음
+ * - 고정 길이 레코드: id(8) + price(4) + quantity(4) + null 플래그(1) + 상품명 길이(1) + 상품명(char 10개, 20)
+ * - 상품명은 컬럼 정의(@Column(length = 10))와 같이 최대 10자
+ * - id 는 이 저장소가 1부터 순서대로 부여하므로 힙에 있는 id 인덱스는 slot = id - 1 계산으로 대신함
+ */
+@Repository
+public class OffHeapItemRepository implements ItemRepository {
+
+    static final int MAX_NAME_LENGTH = 10;
+
+    private static final int ID = 0;
+    private static final int PRICE = 8;
+    private static final int QUANTITY = 12;
+    private static final int FLAGS = 16;
+    private static final int NAME_LENGTH = 17;
+    private static final int NAME = 18;
+    static final int RECORD_SIZE = NAME + MAX_NAME_LENGTH * Character.BYTES;  //38 byte
+
+    private static final byte NULL_NAME = 1;
+    private static final byte NULL_PRICE = 1 << 1;
+    private static final byte NULL_QUANTITY = 1 << 2;
+
+    //청크 단위로 버퍼를 추가해서 늘어날 때 기존 데이터를 복사하지 않음
+    private static final int CHUNK_SHIFT = 16;
+    private static final int RECORDS_PER_CHUNK = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = RECORDS_PER_CHUNK - 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private int size = 0;
+
+    @Override
+    public Item save(Item item) {
+        validateName(item.getItemName());
+        lock.writeLock().lock();
+        try {
+            int slot = size;
+            if ((slot >>> CHUNK_SHIFT) == chunks.size()) {
+                chunks.add(ByteBuffer.allocateDirect(RECORDS_PER_CHUNK * RECORD_SIZE));
+            }
+            long id = slot + 1L;
+            chunk(slot).putLong(offset(slot) + ID, id);
+            write(slot, item.getItemName(), item.getPrice(), item.getQuantity());
+            size++;
+            item.setId(id);
+            return item;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        items.forEach(item -> validateName(item.getItemName()));  //일부만 저장되지 않도록 먼저 전부 검증
+        lock.writeLock().lock();  //락을 한 번만 잡고 저장 (save 의 쓰기 락은 재진입)
+        try {
+            for (Item item : items) {
+                save(item);
+            }
+            return items;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        validateName(updateParam.getItemName());
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(itemId);
+            if (slot < 0) {
+                throw new NoSuchElementException("item not found itemId=" + itemId);
+            }
+            write(slot, updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotOf(id);
+            return slot < 0 ? Optional.empty() : Optional.of(read(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        String itemName = cond.getItemName();
+        Integer maxPrice = cond.getMaxPrice();
+        boolean hasName = !ObjectUtils.isEmpty(itemName);
+        int limit = cond.getPageSize() == null ? Integer.MAX_VALUE : cond.getPageSize();
+
+        lock.readLock().lock();
+        try {
+            List<Item> result = new ArrayList<>();
+            //slot 순서 = id 순서이므로 lastId 다음 slot 부터 읽고 pageSize 만큼 찾으면 중단 (뒤쪽 페이지도 앞 페이지와 같은 비용)
+            for (int slot = startSlot(cond.getLastId()); slot < size && result.size() < limit; slot++) {
+                ByteBuffer chunk = chunk(slot);
+                int offset = offset(slot);
+                byte flags = chunk.get(offset + FLAGS);
+                //가격 조건은 버퍼에서 바로 비교, 통과한 경우에만 상품명을 읽음
+                if (maxPrice != null && ((flags & NULL_PRICE) != 0 || chunk.getInt(offset + PRICE) > maxPrice)) {
+                    continue;
+                }
+                if (hasName) {
+                    String name = readName(chunk, offset, flags);
+                    if (!cond.matchesItemName(name)) {
+                        continue;
+                    }
+                }
+                result.add(read(slot));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clearStore() {
+        lock.writeLock().lock();
+        try {
+            chunks.clear();  //Direct 버퍼 메모리는 버퍼 객체가 GC 될 때 반환
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void validateName(String itemName) {
+        if (itemName != null && itemName.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("itemName too long (max " + MAX_NAME_LENGTH + ") itemName=" + itemName);
+        }
+    }
+
+    private int startSlot(Long lastId) {
+        if (lastId == null || lastId < 1) {
+            return 0;
+        }
+        return (int) Math.min(lastId, size);  //id lastId + 1 의 slot
+    }
+
+    private int slotOf(Long id) {
+        if (id == null || id < 1 || id > size) {
+            return -1;
+        }
+        return (int) (id - 1);
+    }
+
+    private ByteBuffer chunk(int slot) {
+        return chunks.get(slot >>> CHUNK_SHIFT);
+    }
+
+    private int offset(int slot) {
+        return (slot & CHUNK_MASK) * RECORD_SIZE;
+    }
+
+    private void write(int slot, String itemName, Integer price, Integer quantity) {
+        ByteBuffer chunk = chunk(slot);
+        int offset = offset(slot);
+
+        byte flags = 0;
+        if (itemName == null) {
+            flags |= NULL_NAME;
+        }
+        if (price == null) {
+            flags |= NULL_PRICE;
+        }
+        if (quantity == null) {
+            flags |= NULL_QUANTITY;
+        }
+        chunk.put(offset + FLAGS, flags);
+        chunk.putInt(offset + PRICE, price == null ? 0 : price);
+        chunk.putInt(offset + QUANTITY, quantity == null ? 0 : quantity);
+
+        int length = itemName == null ? 0 : itemName.length();
+        chunk.put(offset + NAME_LENGTH, (byte) length);
+        for (int i = 0; i < length; i++) {
+            chunk.putChar(offset + NAME + i * Character.BYTES, itemName.charAt(i));
+        }
+    }
+
+    private Item read(int slot) {
+        ByteBuffer chunk = chunk(slot);
+        int offset = offset(slot);
+        byte flags = chunk.get(offset + FLAGS);
+
+        Item item = new Item(
+                readName(chunk, offset, flags),
+                (flags & NULL_PRICE) != 0 ? null : chunk.getInt(offset + PRICE),
+                (flags & NULL_QUANTITY) != 0 ? null : chunk.getInt(offset + QUANTITY));
+        item.setId(chunk.getLong(offset + ID));
+        return item;
+    }
+
+    private String readName(ByteBuffer chunk, int offset, byte flags) {
+        if ((flags & NULL_NAME) != 0) {
+            return null;
+        }
+        int length = chunk.get(offset + NAME_LENGTH);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = chunk.getChar(offset + NAME + i * Character.BYTES);
+        }
+        return new String(chars);
+    }
+}
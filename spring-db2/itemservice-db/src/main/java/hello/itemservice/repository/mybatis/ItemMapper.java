@@ -5,6 +5,7 @@ import hello.itemservice.repository.ItemSearchCond;
 import hello.itemservice.repository.ItemUpdateDto;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,9 +19,15 @@ public interface ItemMapper {
 
     void save(Item item);
 
+    //여러 행을 한 번의 insert 문으로 저장 (파라미터 이름 list)
+    void saveAll(List<Item> items);
+
     void update(@Param("id") Long id, @Param("updateParam") ItemUpdateDto updateParam);
 
     Optional<Item> findById(Long id);
 
     List<Item> findAll(ItemSearchCond itemSearch);
+
+    //결과를 한 번에 List 로 만들지 않고 커서로 한 행씩 읽음 (SqlSession 이 열려있는 동안, 즉 트랜잭션 안에서만 사용 가능)
+    Cursor<Item> streamAll(ItemSearchCond itemSearch);
 }
@@ -6,16 +6,23 @@ import hello.itemservice.repository.ItemSearchCond;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Slf4j
 @Repository
 @RequiredArgsConstructor
 public class MyBatisItemRepository implements ItemRepository {
 
+    static final int BATCH_SIZE = 1000;
+
     private final ItemMapper itemMapper;
 
     @Override
@@ -25,6 +32,17 @@ public class MyBatisItemRepository implements ItemRepository {
         return item;
     }
 
+    /**
+     * multi-row insert, 문장이 너무 길어지지 않도록 BATCH_SIZE 건씩 나눠서 실행
+     */
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+            itemMapper.saveAll(items.subList(from, Math.min(from + BATCH_SIZE, items.size())));
+        }
+        return items;
+    }
+
     @Override
     public void update(Long itemId, ItemUpdateDto updateParam) {
         itemMapper.update(itemId, updateParam);
@@ -39,4 +57,17 @@ public class MyBatisItemRepository implements ItemRepository {
     public List<Item> findAll(ItemSearchCond cond) {
         return itemMapper.findAll(cond);
     }
+
+    @Override
+    public Stream<Item> streamAll(ItemSearchCond cond) {
+        Cursor<Item> cursor = itemMapper.streamAll(cond);
+        return StreamSupport.stream(cursor.spliterator(), false)
+                .onClose(() -> {
+                    try {
+                        cursor.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
 }
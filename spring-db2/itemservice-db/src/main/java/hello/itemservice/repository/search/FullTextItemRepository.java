@@ -0,0 +1,224 @@
+package hello.itemservice.repository.search;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * ItemRepository 앞에 두는 상품명 포함 검색 (데코레이터)
+ * - findAll 의 포함 검색(like '%x%')은 DB 인덱스를 쓸 수 없으므로 ItemNameIndex 에서 후보 id 를 먼저 찾고
+ *   후보만 findAllById 로 조회한 뒤 maxPrice, 페이징(lastId, pageSize) 적용
+ *   (상품명 조건이 없거나 앞부분 일치면 DB 인덱스를 쓰므로 그대로 target 에 위임)
+ * - save/update 시 색인 갱신
+ *   트랜잭션 밖: 바로 반영
+ *   트랜잭션 안: 트랜잭션별로 모아 두었다가 커밋 후 반영 (롤백되면 버림)
+ *   -> 다른 트랜잭션은 커밋 전 상품명을 보지 않고, 같은 트랜잭션의 findAll 은 모아 둔 id 도 후보에 포함
+ * - 변경마다 저장 직후 번호를 붙이고, id 별로 반영한 번호보다 작은 변경은 버림
+ *   같은 id 를 수정하는 트랜잭션은 행 잠금 때문에 앞 트랜잭션이 커밋한 뒤에야 update 가 끝나므로 번호 순서 = 커밋 순서
+ *   -> 커밋 후 반영(afterCommit)이 커밋과 다른 순서로 실행되어도 마지막에 커밋된 상품명이 남음
+ * - 조회한 상품의 상품명을 다시 확인하므로 색인이 늦어도 잘못된 결과는 나오지 않음 (커밋 직후 잠깐 누락될 수는 있음)
+ * - 컨텍스트 시작 시(요청 받기 전) 전체 상품으로 색인을 다시 만듦
+ */
+@Slf4j
+public class FullTextItemRepository implements ItemRepository, SmartInitializingSingleton {
+
+    static final int FETCH_SIZE = 500;  //findAllById 한 번에 조회할 후보 수
+    static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ItemRepository target;
+    private final ItemNameIndex index;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<Long, Long> indexedVersions = new ConcurrentHashMap<>();  //id -> 색인에 반영한 변경 번호
+
+    public FullTextItemRepository(ItemRepository target, ItemNameIndex index) {
+        this.target = target;
+        this.index = index;
+    }
+
+    @Override
+    public Item save(Item item) {
+        Item savedItem = target.save(item);
+        indexLater(savedItem.getId(), savedItem.getItemName());
+        return savedItem;
+    }
+
+    @Override
+    public List<Item> saveAll(List<Item> items) {
+        List<Item> savedItems = target.saveAll(items);
+        savedItems.forEach(item -> indexLater(item.getId(), item.getItemName()));
+        return savedItems;
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        target.update(itemId, updateParam);
+        indexLater(itemId, updateParam.getItemName());
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return target.findById(id);
+    }
+
+    @Override
+    public List<Item> findAllById(Collection<Long> ids) {
+        return target.findAllById(ids);
+    }
+
+    @Override
+    public List<Item> findAll(ItemSearchCond cond) {
+        if (!StringUtils.hasText(cond.getItemName()) || cond.isPrefixMatch()) {
+            return target.findAll(cond);
+        }
+
+        NavigableSet<Long> candidates = index.search(cond.getItemName());
+        PendingChanges pending = pendingChanges(false);
+        if (pending != null) {
+            candidates.addAll(pending.names.keySet());  //커밋 전 변경 (상품명은 조회 후 확인)
+        }
+        if (cond.getLastId() != null) {
+            candidates = candidates.tailSet(cond.getLastId(), false);
+        }
+
+        Integer pageSize = cond.getPageSize();
+        List<Item> result = new ArrayList<>();
+        Iterator<Long> iterator = candidates.iterator();
+        while (iterator.hasNext() && (pageSize == null || result.size() < pageSize)) {
+            List<Long> ids = new ArrayList<>(FETCH_SIZE);
+            while (iterator.hasNext() && ids.size() < FETCH_SIZE) {
+                ids.add(iterator.next());
+            }
+            for (Item item : target.findAllById(ids)) {
+                if (matches(item, cond)) {
+                    result.add(item);
+                    if (pageSize != null && result.size() == pageSize) {
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Stream<Item> streamAll(ItemSearchCond cond) {
+        return target.streamAll(cond);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * 전체 상품을 키셋 페이지 단위로 읽어 색인을 다시 만듦
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        index.clear();
+        indexedVersions.clear();
+        Long lastId = null;
+        List<Item> page;
+        do {
+            page = target.findAll(new ItemSearchCond(null, null, REBUILD_PAGE_SIZE, lastId));
+            for (Item item : page) {
+                index.put(item.getId(), item.getItemName());
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        log.info("item name index rebuilt size={} {}ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    public ItemNameIndex getIndex() {
+        return index;
+    }
+
+    private boolean matches(Item item, ItemSearchCond cond) {
+        if (!cond.matchesItemName(item.getItemName())) {
+            return false;
+        }
+        Integer maxPrice = cond.getMaxPrice();
+        return maxPrice == null || (item.getPrice() != null && item.getPrice() <= maxPrice);
+    }
+
+    private void indexLater(Long itemId, String itemName) {
+        long version = sequence.incrementAndGet();
+        PendingChanges pending = pendingChanges(true);
+        if (pending == null) {
+            apply(itemId, itemName, version);
+            return;
+        }
+        pending.names.put(itemId, itemName);
+        pending.versions.put(itemId, version);
+    }
+
+    /**
+     * 이미 더 나중 변경을 반영했으면 버림 (같은 id 의 반영은 compute 안에서 차례로)
+     */
+    private void apply(Long itemId, String itemName, long version) {
+        indexedVersions.compute(itemId, (id, indexedVersion) -> {
+            if (indexedVersion != null && indexedVersion > version) {
+                return indexedVersion;
+            }
+            index.put(id, itemName);
+            return version;
+        });
+    }
+
+    /**
+     * 현재 트랜잭션에 등록된 변경 목록
+     * 트랜잭션 동기화 목록에서 찾으므로 REQUIRES_NEW 등으로 바깥 트랜잭션이 보류되면 안쪽 트랜잭션은 따로 모음
+     */
+    private PendingChanges pendingChanges(boolean create) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges && ((PendingChanges) synchronization).owner() == this) {
+                return (PendingChanges) synchronization;
+            }
+        }
+        if (!create) {
+            return null;
+        }
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final Map<Long, String> names = new HashMap<>();
+        private final Map<Long, Long> versions = new HashMap<>();
+
+        FullTextItemRepository owner() {
+            return FullTextItemRepository.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            names.forEach((itemId, itemName) -> apply(itemId, itemName, versions.get(itemId)));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package hello.itemservice.repository.search;
+
+import java.util.NavigableSet;
+
+/**
+ * 상품명 검색 엔진 (FullTextItemRepository 가 사용)
+ * - 커밋된 상품명만 보관, 트랜잭션 안의 변경은 FullTextItemRepository 가 따로 관리
+ * - 기본 구현은 메모리 3-gram 역색인(NGramItemNameIndex), 다른 엔진은 이 인터페이스를 구현한 빈으로 교체
+ */
+public interface ItemNameIndex {
+
+    /**
+     * 상품명에 keyword 를 포함하는 id (오름차순, 반환된 집합은 호출하는 쪽에서 수정 가능)
+     */
+    NavigableSet<Long> search(String keyword);
+
+    /**
+     * 추가 또는 상품명 변경 (itemName 이 null 이면 제거)
+     */
+    void put(Long id, String itemName);
+
+    void remove(Long id);
+
+    void clear();
+
+    int size();
+}
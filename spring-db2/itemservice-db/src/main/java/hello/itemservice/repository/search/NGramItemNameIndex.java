@@ -0,0 +1,130 @@
+package hello.itemservice.repository.search;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 메모리 3-gram 역색인 - 상품명의 연속된 3글자마다 id 목록을 보관
+ * - like '%x%' 와 같은 결과 (대소문자 구분, 단어 단위가 아닌 부분 문자열)
+ * - 3글자 이상 검색어: 검색어의 3-gram 중 id 가 가장 적은 목록만 상품명으로 확인
+ * - 1~2글자 검색어: 3-gram 으로 찾을 수 없으므로 전체 상품명 확인 (DB 전체 스캔보다는 빠름)
+ * - 읽기/쓰기 락, 상품 수에 비례해 메모리 사용 (상품명 10자 기준 상품당 3-gram 최대 8개)
+ */
+public class NGramItemNameIndex implements ItemNameIndex {
+
+    static final int N = 3;
+
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public NavigableSet<Long> search(String keyword) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Long> ids = new TreeSet<>();
+            if (keyword.length() < N) {
+                names.forEach((id, name) -> {
+                    if (name.contains(keyword)) {
+                        ids.add(id);
+                    }
+                });
+                return ids;
+            }
+            Set<Long> smallest = null;
+            for (String gram : grams(keyword)) {
+                Set<Long> posting = postings.get(gram);
+                if (posting == null) {
+                    return ids;  //없는 3-gram 이 있으면 결과 없음
+                }
+                if (smallest == null || posting.size() < smallest.size()) {
+                    smallest = posting;
+                }
+            }
+            for (Long id : smallest) {
+                if (names.get(id).contains(keyword)) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(Long id, String itemName) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (itemName == null) {
+                return;
+            }
+            names.put(id, itemName);
+            for (String gram : grams(itemName)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long id) {
+        String oldName = names.remove(id);
+        if (oldName == null) {
+            return;
+        }
+        for (String gram : grams(oldName)) {
+            Set<Long> posting = postings.get(gram);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + N <= text.length(); i++) {
+            grams.add(text.substring(i, i + N));
+        }
+        return grams;
+    }
+}
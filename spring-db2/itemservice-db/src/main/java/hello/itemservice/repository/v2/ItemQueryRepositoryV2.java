@@ -1,36 +1,59 @@
 package hello.itemservice.repository.v2;
 
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import hello.itemservice.domain.Item;
 import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.jpa.JpaStreams;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static hello.itemservice.domain.QItem.item;
 
 @Repository
 public class ItemQueryRepositoryV2 {
 
+    private final EntityManager em;
     private final JPAQueryFactory query;
 
     public ItemQueryRepositoryV2(EntityManager em) {
+        this.em = em;
         this.query = new JPAQueryFactory(em);
     }
 
     public List<Item> findAll(ItemSearchCond cond) {
+        JPAQuery<Item> select = searchQuery(cond);
+        if (cond.getPageSize() != null) {
+            select.limit(cond.getPageSize());
+        }
+        return select.fetch();
+    }
+
+    /**
+     * 대량 내보내기용 (읽기 전용 트랜잭션 안에서 사용, 사용 후 close)
+     */
+    public Stream<Item> stream(ItemSearchCond cond) {
+        JPAQuery<Item> select = searchQuery(cond)
+                .setHint(JpaStreams.HINT_FETCH_SIZE, JpaStreams.FETCH_SIZE)
+                .setHint(JpaStreams.HINT_READ_ONLY, true);
+        return JpaStreams.clearEvery(em, select.stream());
+    }
+
+    private JPAQuery<Item> searchQuery(ItemSearchCond cond) {
         return query.select(item)
                 .from(item)
-                .where(likeItemName(cond.getItemName()), maxPrice(cond.getMaxPrice()))
-                .fetch();
+                .where(likeItemName(cond), maxPrice(cond.getMaxPrice()), afterId(cond.getLastId()))
+                .orderBy(item.id.asc());
     }
 
-    private BooleanExpression likeItemName(String itemName) {
-        if (StringUtils.hasText(itemName)) {
-            return item.itemName.like("%" + itemName + "%");
+    private BooleanExpression likeItemName(ItemSearchCond cond) {
+        if (StringUtils.hasText(cond.getItemName())) {
+            return item.itemName.like(cond.itemNamePattern());  //'x%' 또는 '%x%'
         }
         return null;
     }
@@ -40,4 +63,10 @@ public class ItemQueryRepositoryV2 {
         }
         return null;
     }
+    private BooleanExpression afterId(Long lastId) {
+        if (lastId != null) {
+            return item.id.gt(lastId);
+        }
+        return null;
+    }
 }
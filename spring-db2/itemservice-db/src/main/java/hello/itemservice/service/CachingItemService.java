@@ -0,0 +1,137 @@
+package hello.itemservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * ItemService 앞에 두는 검색 결과 캐시 (데코레이터, ItemServiceV1 / ItemServiceV2 모두 적용 가능)
+ * - 키: 정규화한 검색 조건 (빈 상품명 -> null, 모든 구현에서 조건 없음과 같은 의미)
+ * - 무효화: 버전 스탬프. 키에 버전을 포함하고 save/update 가 끝나면 버전을 올린 뒤 이전 항목을 비움
+ *   -> 어떤 상품이 바뀌어도 모든 검색 결과가 무효화됨 (조건별로 영향 여부를 판단하지 않는 대신 놓치는 경우가 없음)
+ *   바깥 트랜잭션 안에서 호출되면 완료(커밋/롤백) 후에 한 번 더 올림
+ * - 조회를 시작할 때의 버전으로 저장하므로 조회 도중에 수정이 커밋되면 그 결과는 다시 사용되지 않음
+ */
+public class CachingItemService implements ItemService {
+
+    private final ItemService target;
+    private final Cache<SearchKey, List<Item>> cache;
+    private final AtomicLong version = new AtomicLong();
+
+    public CachingItemService(ItemService target, long maximumSize, Duration ttl) {
+        this.target = target;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Item save(Item item) {
+        try {
+            return target.save(item);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void update(Long itemId, ItemUpdateDto updateParam) {
+        try {
+            target.update(itemId, updateParam);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        return target.findById(id);
+    }
+
+    @Override
+    public List<Item> findItems(ItemSearchCond itemSearch) {
+        SearchKey key = SearchKey.of(itemSearch, version.get());
+        List<Item> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return copy(cached);
+        }
+
+        List<Item> items = target.findItems(itemSearch);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {  //커밋 전 값일 수 있으므로 트랜잭션 안에서는 캐시하지 않음
+            cache.put(key, copy(items));
+        }
+        return items;
+    }
+
+    @Override
+    public void exportItems(ItemSearchCond itemSearch, Consumer<Item> consumer) {
+        target.exportItems(itemSearch, consumer);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 캐시 통계를 메트릭으로 노출 (cache.gets, cache.puts, cache.evictions ... cache 태그 = cacheName)
+     */
+    public void bindTo(MeterRegistry registry, String cacheName) {
+        CaffeineCacheMetrics.monitor(registry, cache, cacheName);
+    }
+
+    private void invalidate() {
+        version.incrementAndGet();
+        cache.invalidateAll();  //이전 버전 항목은 다시 조회되지 않으므로 바로 비움
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                    cache.invalidateAll();
+                }
+            });
+        }
+    }
+
+    private static List<Item> copy(List<Item> items) {
+        return items.stream().map(item -> {
+            Item copy = new Item(item.getItemName(), item.getPrice(), item.getQuantity());
+            copy.setId(item.getId());
+            return copy;
+        }).collect(Collectors.toList());
+    }
+
+    @Value
+    static class SearchKey {
+        String itemName;
+        Integer maxPrice;
+        boolean prefixMatch;
+        Integer pageSize;
+        Long lastId;
+        long version;
+
+        static SearchKey of(ItemSearchCond cond, long version) {
+            String itemName = StringUtils.hasLength(cond.getItemName()) ? cond.getItemName() : null;
+            return new SearchKey(itemName, cond.getMaxPrice(), itemName != null && cond.isPrefixMatch(),
+                    cond.getPageSize(), cond.getLastId(), version);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import hello.itemservice.repository.ItemUpdateDto;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
@@ -16,4 +17,9 @@ public interface ItemService {
     Optional<Item> findById(Long id);
 
     List<Item> findItems(ItemSearchCond itemSearch);
+
+    /**
+     * 조건에 맞는 상품을 id 순으로 하나씩 consumer 에 전달 (전체를 List 로 만들지 않음, 대량 내보내기용)
+     */
+    void exportItems(ItemSearchCond itemSearch, Consumer<Item> consumer);
 }
@@ -6,9 +6,12 @@ import hello.itemservice.repository.ItemSearchCond;
 import hello.itemservice.repository.ItemUpdateDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -35,4 +38,12 @@ public class ItemServiceV1 implements ItemService {
     public List<Item> findItems(ItemSearchCond cond) {
         return itemRepository.findAll(cond);
     }
+
+    @Override
+    @Transactional(readOnly = true)  //스트림을 다 읽을 때까지 커넥션(커서)을 유지
+    public void exportItems(ItemSearchCond cond, Consumer<Item> consumer) {
+        try (Stream<Item> items = itemRepository.streamAll(cond)) {
+            items.forEach(consumer);
+        }
+    }
 }
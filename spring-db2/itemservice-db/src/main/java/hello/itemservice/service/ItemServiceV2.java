@@ -11,6 +11,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -42,4 +44,12 @@ public class ItemServiceV2 implements ItemService {
     public List<Item> findItems(ItemSearchCond itemSearch) {
         return itemQueryRepositoryV2.findAll(itemSearch);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportItems(ItemSearchCond itemSearch, Consumer<Item> consumer) {
+        try (Stream<Item> items = itemQueryRepositoryV2.stream(itemSearch)) {
+            items.forEach(consumer);
+        }
+    }
 }
@@ -17,12 +17,33 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ItemService itemService;
 
+    /**
+     * 키셋 페이징: 다음 페이지 링크에 현재 페이지의 마지막 id 를 lastId 로 전달
+     */
     @GetMapping
     public String items(@ModelAttribute("itemSearch") ItemSearchCond itemSearch, Model model) {
-        List<Item> items = itemService.findItems(itemSearch);
+        Integer pageSize = itemSearch.getPageSize();
+        if (pageSize == null || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            pageSize = DEFAULT_PAGE_SIZE;
+            itemSearch.setPageSize(pageSize);
+        }
+
+        //다음 페이지가 있는지 확인하기 위해 1개 더 조회
+        ItemSearchCond cond = new ItemSearchCond(itemSearch.getItemName(), itemSearch.getMaxPrice(),
+                itemSearch.isPrefixMatch(), pageSize + 1, itemSearch.getLastId());
+        List<Item> items = itemService.findItems(cond);
+        boolean hasNext = items.size() > pageSize;
+        if (hasNext) {
+            items = items.subList(0, pageSize);
+        }
+
         model.addAttribute("items", items);
+        model.addAttribute("nextLastId", hasNext ? items.get(items.size() - 1).getId() : null);
         return "items";
     }
 
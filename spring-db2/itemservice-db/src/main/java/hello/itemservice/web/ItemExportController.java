@@ -0,0 +1,90 @@
+package hello.itemservice.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.service.ItemService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 상품 전체 내보내기 (CSV / NDJSON)
+ * StreamingResponseBody 로 조회하는 대로 바로 응답에 쓰므로 상품 수와 관계없이 메모리 사용량이 일정
+ * ex) GET /items/export?format=ndjson&maxPrice=10000
+ */
+@RestController
+@RequiredArgsConstructor
+public class ItemExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+    private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/items/export")
+    public ResponseEntity<StreamingResponseBody> export(@ModelAttribute ItemSearchCond itemSearch,
+                                                        @RequestParam(defaultValue = "csv") String format) {
+        boolean csv = !format.equals("ndjson");
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write("id,item_name,price,quantity\n");
+            }
+            try {
+                itemService.exportItems(itemSearch, item -> write(writer, item, csv));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();  //클라이언트가 연결을 끊은 경우 등
+            }
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=items." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+
+    private void write(Writer writer, Item item, boolean csv) {
+        try {
+            if (csv) {
+                writer.write(item.getId() + "," + csvValue(item.getItemName()) + ","
+                        + nullToEmpty(item.getPrice()) + "," + nullToEmpty(item.getQuantity()) + "\n");
+            } else {
+                writer.write(objectMapper.writeValueAsString(item));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번 (RFC 4180)
+    private String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private String nullToEmpty(Integer value) {
+        return value == null ? "" : value.toString();
+    }
+}
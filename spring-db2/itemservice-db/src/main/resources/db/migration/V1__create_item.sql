@@ -0,0 +1,12 @@
+--item 테이블 (sql/schema.sql, sql/schema-sequence.sql 과 같은 구조)
+--이미 sql/schema.sql 로 만든 DB 에서도 실행할 수 있도록 if not exists
+--id 컬럼 정의는 placeholder: 기본 identity, sequence 프로필은 item_seq 기본값 (application-sequence.properties)
+create sequence if not exists item_seq start with 1 increment by 50;
+create table if not exists item
+(
+    id        bigint ${item_id},
+    item_name varchar(10),
+    price     integer,
+    quantity  integer,
+    primary key (id)
+);
@@ -0,0 +1,5 @@
+--검색 조건 인덱스
+--price <= ? : 가격 인덱스 범위 조회
+--item_name like 'x%' (앞부분 일치) : 상품명 인덱스 범위 조회, like '%x%' (포함 검색)은 인덱스를 사용할 수 없음
+create index if not exists idx_item_price on item (price);
+create index if not exists idx_item_name on item (item_name);
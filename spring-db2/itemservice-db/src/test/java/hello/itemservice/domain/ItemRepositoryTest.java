@@ -3,14 +3,19 @@ package hello.itemservice.domain;
 import hello.itemservice.repository.ItemRepository;
 import hello.itemservice.repository.ItemSearchCond;
 import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.memory.ColumnarItemRepository;
 import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.repository.memory.OffHeapItemRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -38,6 +43,12 @@ class ItemRepositoryTest {
         if (itemRepository instanceof MemoryItemRepository) {
             ((MemoryItemRepository) itemRepository).clearStore();
         }
+        if (itemRepository instanceof ColumnarItemRepository) {
+            ((ColumnarItemRepository) itemRepository).clearStore();
+        }
+        if (itemRepository instanceof OffHeapItemRepository) {
+            ((OffHeapItemRepository) itemRepository).clearStore();
+        }
         //트랜잭션 롤백
 //        transactionManager.rollback(status);
     }
@@ -55,6 +66,24 @@ class ItemRepositoryTest {
         assertThat(findItem).isEqualTo(savedItem);
     }
 
+    @Test
+    void saveAll() {
+        //given: 배치 크기(1000)보다 많이, null 값 포함
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            items.add(new Item("item" + i, i == 0 ? null : i, 1));
+        }
+
+        //when
+        List<Item> savedItems = itemRepository.saveAll(items);
+
+        //then: 생성된 id 가 순서대로 채워짐
+        assertThat(savedItems).extracting(Item::getId).doesNotContainNull().doesNotHaveDuplicates().isSorted();
+        assertThat(itemRepository.findById(savedItems.get(0).getId()).get().getPrice()).isNull();
+        Item last = savedItems.get(2499);
+        assertThat(itemRepository.findById(last.getId()).get().getItemName()).isEqualTo("item2499");
+    }
+
     @Test
     void updateItem() {
         //given
@@ -100,6 +129,67 @@ class ItemRepositoryTest {
         test("itemA", 10000, item1);
     }
 
+    @Test
+    void findItemsPrefix() {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("xitemA", 30000, 30));
+
+        //앞부분 일치 - 중간에 포함된 것은 제외
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemA", null, true, null, null))).containsExactly(item1, item2);
+        assertThat(itemRepository.findAll(new ItemSearchCond("temA", null, true, null, null))).isEmpty();
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemA", 10000, true, null, null))).containsExactly(item1);
+
+        //포함 검색(기본값)
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemA", null, false, null, null))).containsExactly(item1, item2, item3);
+    }
+
+    @Test
+    void findItemsPage() {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemB-1", 30000, 30));
+        Item item4 = itemRepository.save(new Item("itemA-3", 40000, 40));
+
+        //첫 페이지
+        assertThat(itemRepository.findAll(new ItemSearchCond(null, null, 2, null))).containsExactly(item1, item2);
+
+        //다음 페이지 (이전 페이지 마지막 id 이후)
+        assertThat(itemRepository.findAll(new ItemSearchCond(null, null, 2, item2.getId()))).containsExactly(item3, item4);
+        assertThat(itemRepository.findAll(new ItemSearchCond(null, null, 2, item4.getId()))).isEmpty();
+
+        //검색 조건과 함께
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemA", null, 2, item1.getId()))).containsExactly(item2, item4);
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemA", 30000, 1, item1.getId()))).containsExactly(item2);
+        assertThat(itemRepository.findAll(new ItemSearchCond(null, null, null, item2.getId()))).containsExactly(item3, item4);
+    }
+
+    @Test
+    void streamAll() {
+        //given: 기본 구현의 페이지 크기(1000)보다 많이
+        List<Item> saved = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            saved.add(itemRepository.save(new Item("item" + (i % 2 == 0 ? "A" : "B"), i, 1)));
+        }
+
+        //when
+        List<Item> all;
+        try (Stream<Item> stream = itemRepository.streamAll(new ItemSearchCond())) {
+            all = stream.collect(Collectors.toList());
+        }
+        long countA;
+        try (Stream<Item> stream = itemRepository.streamAll(new ItemSearchCond("itemA", null))) {
+            countA = stream.count();
+        }
+
+        //then
+        assertThat(all).extracting(Item::getId).containsExactlyElementsOf(
+                saved.stream().map(Item::getId).collect(Collectors.toList()));
+        assertThat(countA).isEqualTo(1250);
+    }
+
     void test(String itemName, Integer maxPrice, Item... items) {
         List<Item> result = itemRepository.findAll(new ItemSearchCond(itemName, maxPrice));
         assertThat(result).containsExactly(items);
@@ -0,0 +1,43 @@
+package hello.itemservice.domain;
+
+import hello.itemservice.repository.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * sequence 프로필: Item id 를 시퀀스(pooled-lo)로 생성
+ */
+@Transactional
+@SpringBootTest
+@ActiveProfiles({"test", "sequence"})
+class ItemSequenceIdTest {
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Test
+    void saveAll() {
+        //given
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(new Item("item" + i, i, 1));
+        }
+
+        //when
+        itemRepository.saveAll(items);
+
+        //then: 시퀀스 한 번에 50개씩 이어지는 id
+        for (int i = 1; i < items.size(); i++) {
+            assertThat(items.get(i).getId()).isEqualTo(items.get(0).getId() + i);
+        }
+        assertThat(itemRepository.findById(items.get(119).getId())).isPresent();
+    }
+}
@@ -0,0 +1,50 @@
+package hello.itemservice.domain;
+
+import hello.itemservice.metrics.SlowQueryDataSource;
+import hello.itemservice.metrics.SlowQueryLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 느린 조회 감지(SlowQueryDataSource)를 켜고 ItemRepositoryTest 를 트랜잭션 안에서 그대로 실행
+ * - threshold 0 -> 모든 조회를 감싸고 기록
+ */
+@SpringBootTest(properties = {"itemservice.slow-query.enabled=true", "itemservice.slow-query.threshold=0ms"})
+class SlowQueryItemRepositoryTest extends ItemRepositoryTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    SlowQueryLog slowQueryLog;
+
+    @Test
+    void streamKeepsTransactionConnection() {
+        //given
+        assertThat(dataSource).isInstanceOf(SlowQueryDataSource.class);
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.update("insert into item (item_name, price, quantity) values (?, ?, ?)", "itemA", 10000, 10);  //저장소 구현과 무관하게 DB 에 저장
+
+        //when: 스트림을 닫을 때 ps.getConnection() 으로 반납 -> 트랜잭션 커넥션과 같아야 닫히지 않음
+        long before = slowQueryLog.getTotalCount();
+        for (int i = 0; i < 2; i++) {
+            try (Stream<String> stream = template.queryForStream("select item_name from item where price <= ?",
+                    (rs, rowNum) -> rs.getString(1), 10000)) {
+                assertThat(stream).contains("itemA");
+            }
+        }
+
+        //then
+        assertThat(template.queryForObject("select count(*) from item where item_name = 'itemA'", Integer.class)).isEqualTo(1);
+        assertThat(DataSourceUtils.isConnectionTransactional(DataSourceUtils.getConnection(dataSource), dataSource)).isTrue();
+        assertThat(slowQueryLog.getTotalCount()).isGreaterThan(before);
+    }
+}
@@ -0,0 +1,61 @@
+package hello.itemservice.metrics;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CallTimersTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void sampledTotal() {
+        //given
+        CallTimers callTimers = new CallTimers(registry, false);
+
+        //when: 같은 이름/태그는 같은 타이머, 4번 중 2번만 측정
+        callTimers.timer("test", Tags.of("method", "a")).record(1_000_000);
+        callTimers.timer("test", Tags.of("method", "a")).record(CallTimers.NOT_SAMPLED);
+        callTimers.timer("test", Tags.of("method", "a")).record(3_000_000);
+        callTimers.timer("test", Tags.of("method", "a")).record(CallTimers.NOT_SAMPLED);
+
+        //then: 횟수는 전부, 총 시간은 측정한 평균(2ms) * 횟수
+        FunctionTimer timer = registry.get("test").tag("method", "a").functionTimer();
+        assertThat(timer.count()).isEqualTo(4);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(8);
+        assertThat(registry.find("test").timer()).isNull();
+    }
+
+    @Test
+    void sampleRate() {
+        CallTimers callTimers = new CallTimers(registry, false);
+        int sampled = 0;
+        for (int i = 0; i < 160_000; i++) {
+            if (callTimers.sample()) {
+                sampled++;
+            }
+        }
+        assertThat(sampled).isBetween(9_000, 11_000);  //1/16
+        assertThat(new CallTimers(registry, true).sample()).isTrue();
+    }
+
+    @Test
+    void histogram() {
+        //given
+        CallTimers callTimers = new CallTimers(registry, true);
+
+        //when
+        callTimers.timer("test", Tags.of("method", "a")).record(1_000_000);
+
+        //then
+        Timer timer = registry.get("test").tag("method", "a").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.max(TimeUnit.MILLISECONDS)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,58 @@
+package hello.itemservice.metrics;
+
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.cache.CachingItemRepository;
+import hello.itemservice.service.ItemService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 캐시 통계 메트릭 (ItemCacheConfig, ItemSearchCacheConfig)
+ */
+@SpringBootTest(properties = {"itemservice.cache.enabled=true", "itemservice.search-cache.enabled=true"})
+class ItemCacheMetricsTest {
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Test
+    void itemCache() {
+        //given
+        assertThat(itemRepository).isInstanceOf(CachingItemRepository.class);
+        double misses = cacheGets("item", "miss");
+
+        //when: 트랜잭션 밖 조회는 캐시를 거침
+        itemRepository.findById(-1L);
+
+        //then
+        assertThat(cacheGets("item", "miss")).isEqualTo(misses + 1);
+        assertThat(registry.find("cache.puts").tag("cache", "item").functionCounter()).isNotNull();
+        assertThat(registry.find("cache.evictions").tag("cache", "item").functionCounter()).isNotNull();
+    }
+
+    @Test
+    void itemSearchCache() {
+        //when
+        double hits = cacheGets("itemSearch", "hit");
+        itemService.findItems(new ItemSearchCond("cacheMetrics", null));
+        itemService.findItems(new ItemSearchCond("cacheMetrics", null));
+
+        //then
+        assertThat(cacheGets("itemSearch", "hit")).isEqualTo(hits + 1);
+    }
+
+    private double cacheGets(String cache, String result) {
+        return registry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+}
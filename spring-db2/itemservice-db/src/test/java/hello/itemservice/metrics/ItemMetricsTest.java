@@ -0,0 +1,115 @@
+package hello.itemservice.metrics;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.service.ItemService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.search.Search;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ItemMetricsTest {
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Autowired
+    DataSource dataSource;
+
+    Long committedId;
+
+    @AfterEach
+    void afterEach() {
+        //실제로 커밋한 상품은 다른 테스트(상품 검색 결과)에 영향을 주지 않도록 삭제
+        if (committedId != null) {
+            new JdbcTemplate(dataSource).update("delete from item where id = ?", committedId);
+        }
+    }
+
+    @Transactional
+    @Test
+    void serviceAndRepositoryTimers() {
+        //when
+        Item savedItem = itemService.save(new Item("metricsA", 10000, 10));
+        itemService.findById(savedItem.getId());
+        itemService.findItems(new ItemSearchCond("metricsA", null));
+
+        //then
+        assertThat(count(MethodMetricsPostProcessor.SERVICE_METRIC, "save")).isGreaterThanOrEqualTo(1);
+        assertThat(count(MethodMetricsPostProcessor.SERVICE_METRIC, "findById")).isGreaterThanOrEqualTo(1);
+        assertThat(count(MethodMetricsPostProcessor.REPOSITORY_METRIC, "findById")).isGreaterThanOrEqualTo(1);
+        assertThat(count(MethodMetricsPostProcessor.REPOSITORY_METRIC, "findAll")).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void transactionCommitAndRollback() {
+        //given
+        assertThat(transactionManager).isInstanceOf(MeteredTransactionManager.class);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setName("metricsTest");
+
+        //when
+        committedId = template.execute(status -> itemService.save(new Item("metricsB", 10000, 10)).getId());
+        assertThatThrownBy(() -> template.executeWithoutResult(status -> {
+            itemService.save(new Item("metricsC", 10000, 10));  //바깥 트랜잭션에 참여 -> 따로 측정하지 않음
+            throw new IllegalStateException("rollback");
+        })).isInstanceOf(IllegalStateException.class);
+        template.executeWithoutResult(status -> {
+            itemService.save(new Item("metricsD", 10000, 10));
+            status.setRollbackOnly();  //커밋 요청이지만 롤백
+        });
+
+        //then
+        assertThat(transactionCount("commit")).isEqualTo(1);
+        assertThat(transactionCount("rollback")).isEqualTo(2);
+    }
+
+    @Test
+    void connectionPool() throws Exception {
+        //given
+        long before = count(registry.find("hikaricp.connections.acquire"));
+
+        //when
+        dataSource.getConnection().close();
+
+        //then
+        assertThat(count(registry.find("hikaricp.connections.acquire"))).isEqualTo(before + 1);
+        assertThat(registry.find("hikaricp.connections.max").gauge()).isNotNull();
+        assertThat(registry.find("hikaricp.connections.active").gauge()).isNotNull();
+    }
+
+    private long count(String metric, String method) {
+        return count(registry.find(metric).tag("method", method));
+    }
+
+    private long transactionCount(String outcome) {
+        return count(registry.find(MeteredTransactionManager.METRIC).tag("name", "metricsTest").tag("outcome", outcome));
+    }
+
+    /**
+     * 기본은 FunctionTimer, itemservice.metrics.histogram=true 면 Timer (CallTimers)
+     */
+    private long count(Search search) {
+        return search.timers().stream().mapToLong(Timer::count).sum()
+                + search.functionTimers().stream().mapToLong(timer -> (long) timer.count()).sum();
+    }
+}
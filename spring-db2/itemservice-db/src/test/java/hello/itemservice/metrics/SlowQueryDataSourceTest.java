@@ -0,0 +1,56 @@
+package hello.itemservice.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryDataSourceTest {
+
+    SlowQueryLog slowQueryLog = new SlowQueryLog(2);
+    JdbcTemplate template;
+
+    @BeforeEach
+    void beforeEach() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1", "sa", "");
+        template = new JdbcTemplate(new SlowQueryDataSource(dataSource, slowQueryLog, Duration.ZERO, true));  //모든 조회를 기록
+        template.execute("drop table if exists item");
+        template.execute("create table item (id bigint primary key, item_name varchar(10), price integer)");
+        template.update("insert into item values (?, ?, ?)", 1L, "itemA", 10000);
+        template.update("insert into item values (?, ?, ?)", 2L, "itemB", 20000);
+    }
+
+    @Test
+    void recordsQueryWithBindsAndPlan() {
+        //when
+        List<String> names = template.queryForList(
+                "select item_name from item where item_name like concat('%', ?, '%') and price <= ?", String.class, "item", 15000);
+
+        //then: 수정 문장(insert)은 기록하지 않음
+        assertThat(names).containsExactly("itemA");
+        List<SlowQuery> slowQueries = slowQueryLog.findAll();
+        assertThat(slowQueries).hasSize(1);
+        SlowQuery slowQuery = slowQueries.get(0);
+        assertThat(slowQuery.getSql()).contains("like concat");
+        assertThat(slowQuery.getBinds()).containsExactly("item", "15000");
+        assertThat(slowQuery.getPlan()).containsIgnoringCase("scanCount");
+    }
+
+    @Test
+    void ringBufferKeepsLatest() {
+        //when
+        for (int i = 1; i <= 3; i++) {
+            template.queryForObject("select count(*) from item where price <= ?", Integer.class, i);
+        }
+
+        //then: 최근 2건만, 최근 것부터
+        assertThat(slowQueryLog.getTotalCount()).isEqualTo(3);
+        assertThat(slowQueryLog.findAll()).extracting(SlowQuery::getBinds)
+                .containsExactly(List.of("3"), List.of("2"));
+    }
+}
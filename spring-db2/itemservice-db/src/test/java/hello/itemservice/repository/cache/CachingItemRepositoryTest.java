@@ -0,0 +1,108 @@
+package hello.itemservice.repository.cache;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.memory.ColumnarItemRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingItemRepositoryTest {
+
+    CachingItemRepository itemRepository = new CachingItemRepository(new ColumnarItemRepository(), 100, Duration.ofMinutes(10));
+
+    @Test
+    void findById() {
+        //given
+        Item savedItem = itemRepository.save(new Item("itemA", 10000, 10));
+
+        //when
+        itemRepository.findById(savedItem.getId());  //miss -> 캐시
+        Item findItem = itemRepository.findById(savedItem.getId()).orElseThrow();  //hit
+
+        //then
+        assertThat(findItem).isEqualTo(savedItem);
+        assertThat(itemRepository.stats().missCount()).isEqualTo(1);
+        assertThat(itemRepository.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateInvalidates() {
+        //given
+        Item savedItem = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.findById(savedItem.getId());
+
+        //when
+        itemRepository.update(savedItem.getId(), new ItemUpdateDto("itemB", 20000, 20));
+
+        //then: 수정 후에는 새 값 조회
+        Item findItem = itemRepository.findById(savedItem.getId()).orElseThrow();
+        assertThat(findItem.getItemName()).isEqualTo("itemB");
+        assertThat(findItem.getPrice()).isEqualTo(20000);
+        assertThat(itemRepository.stats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cachedItemIsCopied() {
+        //given
+        Item savedItem = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.findById(savedItem.getId()).orElseThrow().setPrice(0);  //조회한 객체를 수정해도
+
+        //then: 캐시된 값은 그대로
+        assertThat(itemRepository.findById(savedItem.getId()).orElseThrow().getPrice()).isEqualTo(10000);
+    }
+
+    @Test
+    void invalidateDuringLoad() throws Exception {
+        //given: 조회가 옛 값을 읽은 뒤 멈춤
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ColumnarItemRepository target = new ColumnarItemRepository() {
+            @Override
+            public Optional<Item> findById(Long id) {
+                Optional<Item> item = super.findById(id);
+                if (loading.getCount() > 0) {
+                    loading.countDown();
+                    await(release);
+                }
+                return item;
+            }
+        };
+        CachingItemRepository itemRepository = new CachingItemRepository(target, 100, Duration.ofMinutes(10));
+        Long itemId = itemRepository.save(new Item("itemA", 10000, 10)).getId();
+
+        Thread reader = new Thread(() -> itemRepository.findById(itemId));
+        reader.start();
+        loading.await(5, TimeUnit.SECONDS);
+
+        //when: 조회 도중에 수정 + 무효화 (커밋 후 무효화와 같음)
+        Thread writer = new Thread(() -> itemRepository.update(itemId, new ItemUpdateDto("itemB", 20000, 20)));
+        writer.start();
+        writer.join(200);  //무효화는 조회가 끝날 때까지 대기
+        release.countDown();
+        reader.join(5000);
+        writer.join(5000);
+
+        //then: 수정 전에 읽은 값이 캐시에 남지 않음
+        assertThat(itemRepository.findById(itemId).orElseThrow().getItemName()).isEqualTo("itemB");
+    }
+
+    @Test
+    void notFoundIsNotCached() {
+        assertThat(itemRepository.findById(999L)).isEmpty();
+        assertThat(itemRepository.size()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarItemRepositoryTest {
+
+    ColumnarItemRepository itemRepository = new ColumnarItemRepository();
+
+    @Test
+    void nullAndMinValue() {
+        //given: null 과 Integer.MIN_VALUE 는 서로 다른 값
+        Item nullItem = itemRepository.save(new Item("itemA", null, null));
+        Item minItem = itemRepository.save(new Item("itemB", Integer.MIN_VALUE, Integer.MIN_VALUE));
+
+        //then
+        Item findNull = itemRepository.findById(nullItem.getId()).orElseThrow();
+        assertThat(findNull.getPrice()).isNull();
+        assertThat(findNull.getQuantity()).isNull();
+        Item findMin = itemRepository.findById(minItem.getId()).orElseThrow();
+        assertThat(findMin.getPrice()).isEqualTo(Integer.MIN_VALUE);
+        assertThat(findMin.getQuantity()).isEqualTo(Integer.MIN_VALUE);
+
+        //가격 조건: null 은 제외, MIN_VALUE 는 포함
+        assertThat(itemRepository.findAll(new ItemSearchCond(null, 0))).containsExactly(minItem);
+    }
+}
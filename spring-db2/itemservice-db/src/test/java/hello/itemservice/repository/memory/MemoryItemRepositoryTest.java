@@ -0,0 +1,129 @@
+package hello.itemservice.repository.memory;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MemoryItemRepository 동시성 테스트 (스프링 컨테이너 없이 순수 자바로 실행)
+ */
+class MemoryItemRepositoryTest {
+
+    static final int THREAD_COUNT = 16;
+    static final int SAVE_PER_THREAD = 1000;
+
+    MemoryItemRepository itemRepository = new MemoryItemRepository();
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void concurrentSave() throws Exception {
+        //when: 여러 스레드에서 동시에 저장
+        List<Item> saved = runConcurrently(() -> {
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < SAVE_PER_THREAD; i++) {
+                items.add(itemRepository.save(new Item("item", 1000, 1)));
+            }
+            return items;
+        });
+
+        //then: 유실, id 중복 없음
+        Set<Long> ids = new HashSet<>();
+        saved.forEach(item -> ids.add(item.getId()));
+        assertThat(ids).hasSize(THREAD_COUNT * SAVE_PER_THREAD);
+        assertThat(itemRepository.findAll(new ItemSearchCond())).hasSize(THREAD_COUNT * SAVE_PER_THREAD);
+    }
+
+    @Test
+    void concurrentUpdate() throws Exception {
+        //given
+        Long itemId = itemRepository.save(new Item("item0", 0, 0)).getId();
+
+        //when: 스레드마다 (이름, 가격, 수량)이 모두 같은 번호인 값으로 수정, 동시에 조회
+        List<Item> reads = runConcurrently(() -> {
+            int n = ThreadLocalRandom.current().nextInt(1000);
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < SAVE_PER_THREAD; i++) {
+                itemRepository.update(itemId, new ItemUpdateDto("item" + n, n, n));
+                items.add(itemRepository.findById(itemId).orElseThrow());
+            }
+            return items;
+        });
+
+        //then: 일부 필드만 수정된 상태가 조회되면 안됨
+        for (Item item : reads) {
+            assertThat(item.getItemName()).isEqualTo("item" + item.getPrice());
+            assertThat(item.getQuantity()).isEqualTo(item.getPrice());
+        }
+    }
+
+    @Test
+    void findAllWithIndex() {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemB-1", 30000, 30));
+
+        //when: 수정 후에도 인덱스가 새 값 기준으로 유지되어야 함
+        itemRepository.update(item2.getId(), new ItemUpdateDto("itemB-2", 5000, 20));
+        Item updated2 = itemRepository.findById(item2.getId()).orElseThrow();
+
+        //then
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemA", null))).containsExactly(item1);
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemB", null))).containsExactly(updated2, item3);
+        assertThat(itemRepository.findAll(new ItemSearchCond("B-", null))).containsExactly(updated2, item3);
+        assertThat(itemRepository.findAll(new ItemSearchCond(null, 10000))).containsExactly(item1, updated2);
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemB", 10000))).containsExactly(updated2);
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemC", null))).isEmpty();
+    }
+
+    @Test
+    void findAllPage() {
+        //given
+        List<Item> saved = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            saved.add(itemRepository.save(new Item(i % 2 == 0 ? "itemA" : "itemB", i * 1000, 1)));
+        }
+
+        //then: 전체 스캔(id 순 store), 인덱스 후보 모두 lastId 이후 id 순
+        assertThat(itemRepository.findAll(new ItemSearchCond(null, null, 3, saved.get(4).getId())))
+                .containsExactly(saved.get(5), saved.get(6), saved.get(7));
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemA", null, 2, saved.get(2).getId())))
+                .containsExactly(saved.get(4), saved.get(6));
+        assertThat(itemRepository.findAll(new ItemSearchCond(null, 5000, 2, saved.get(3).getId())))
+                .containsExactly(saved.get(4), saved.get(5));
+    }
+
+    private List<Item> runConcurrently(Callable<List<Item>> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<Item>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();  //모든 스레드 동시에 시작
+
+            List<Item> result = new ArrayList<>();
+            for (Future<List<Item>> future : futures) {
+                result.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
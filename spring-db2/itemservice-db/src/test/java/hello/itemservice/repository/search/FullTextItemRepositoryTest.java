@@ -0,0 +1,144 @@
+package hello.itemservice.repository.search;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.memory.ColumnarItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FullTextItemRepositoryTest {
+
+    ColumnarItemRepository target = new ColumnarItemRepository();
+    FullTextItemRepository itemRepository = new FullTextItemRepository(target, new NGramItemNameIndex());
+
+    TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(
+            new DriverManagerDataSource("jdbc:h2:mem:fulltext;DB_CLOSE_DELAY=-1", "sa", "")));
+
+    @Test
+    void findAll() {
+        //given
+        Item item1 = itemRepository.save(new Item("itemA-1", 10000, 10));
+        Item item2 = itemRepository.save(new Item("itemA-2", 20000, 20));
+        Item item3 = itemRepository.save(new Item("itemB-1", 30000, 30));
+        Item item4 = itemRepository.save(new Item("xitemA", 40000, 40));
+
+        //then: like '%x%' 와 같은 결과
+        assertThat(find("temA", null)).containsExactly(item1, item2, item4);
+        assertThat(find("-1", null)).containsExactly(item1, item3);  //3글자 미만
+        assertThat(find("itemC", null)).isEmpty();
+        assertThat(find("itemA", 20000)).containsExactly(item1, item2);
+
+        //페이징
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemA", null, 2, null))).containsExactly(item1, item2);
+        assertThat(itemRepository.findAll(new ItemSearchCond("itemA", null, 2, item2.getId()))).containsExactly(item4);
+    }
+
+    @Test
+    void updateReindexes() {
+        //given
+        Item savedItem = itemRepository.save(new Item("itemA", 10000, 10));
+
+        //when
+        itemRepository.update(savedItem.getId(), new ItemUpdateDto("itemB", 10000, 10));
+
+        //then
+        assertThat(find("itemA", null)).isEmpty();
+        assertThat(find("itemB", null)).extracting(Item::getId).containsExactly(savedItem.getId());
+    }
+
+    @Test
+    void rebuild() {
+        //given: 색인을 거치지 않고 저장
+        Item savedItem = target.save(new Item("itemA", 10000, 10));
+        assertThat(find("itemA", null)).isEmpty();
+
+        //when
+        itemRepository.rebuild();
+
+        //then
+        assertThat(find("itemA", null)).containsExactly(savedItem);
+    }
+
+    @Test
+    void indexAfterCommit() {
+        //when
+        Item savedItem = transactionTemplate.execute(status -> {
+            Item item = itemRepository.save(new Item("itemA", 10000, 10));
+
+            //then: 같은 트랜잭션에서는 조회, 색인에는 아직 없음
+            assertThat(find("itemA", null)).containsExactly(item);
+            assertThat(itemRepository.getIndex().search("itemA")).isEmpty();
+            return item;
+        });
+
+        //then
+        assertThat(itemRepository.getIndex().search("itemA")).containsExactly(savedItem.getId());
+    }
+
+    @Test
+    void discardOnRollback() {
+        //when
+        transactionTemplate.executeWithoutResult(status -> {
+            itemRepository.save(new Item("itemA", 10000, 10));
+            status.setRollbackOnly();
+        });
+
+        //then
+        assertThat(itemRepository.getIndex().search("itemA")).isEmpty();
+    }
+
+    @Test
+    void afterCommitOutOfOrder() throws Exception {
+        //given
+        Item savedItem = itemRepository.save(new Item("itemA", 10000, 10));
+        Long itemId = savedItem.getId();
+        CountDownLatch committed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        //when: 먼저 수정/커밋한 트랜잭션의 커밋 후 반영이 나중 트랜잭션보다 늦게 실행
+        Thread first = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {  //색인 반영보다 먼저 등록 -> 먼저 실행
+                    committed.countDown();
+                    await(release);
+                }
+            });
+            itemRepository.update(itemId, new ItemUpdateDto("itemB", 10000, 10));
+        }));
+        first.start();
+        committed.await(5, TimeUnit.SECONDS);
+        transactionTemplate.executeWithoutResult(status ->
+                itemRepository.update(itemId, new ItemUpdateDto("itemC", 10000, 10)));
+        release.countDown();
+        first.join(5000);
+
+        //then: 마지막에 저장된 상품명으로 검색
+        assertThat(target.findById(itemId).orElseThrow().getItemName()).isEqualTo("itemC");
+        assertThat(find("itemC", null)).extracting(Item::getId).containsExactly(itemId);
+        assertThat(itemRepository.getIndex().search("itemB")).isEmpty();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Item> find(String itemName, Integer maxPrice) {
+        return itemRepository.findAll(new ItemSearchCond(itemName, maxPrice));
+    }
+}
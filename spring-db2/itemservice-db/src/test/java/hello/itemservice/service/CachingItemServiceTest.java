@@ -0,0 +1,58 @@
+package hello.itemservice.service;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemSearchCond;
+import hello.itemservice.repository.ItemUpdateDto;
+import hello.itemservice.repository.memory.ColumnarItemRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingItemServiceTest {
+
+    CachingItemService itemService = new CachingItemService(
+            new ItemServiceV1(new ColumnarItemRepository()), 100, Duration.ofMinutes(1));
+
+    @Test
+    void findItems() {
+        //given
+        Item itemA = itemService.save(new Item("itemA", 10000, 10));
+        itemService.save(new Item("itemB", 20000, 20));
+
+        //when
+        itemService.findItems(new ItemSearchCond("item", 10000));  //miss
+        itemService.findItems(new ItemSearchCond("item", 10000));  //hit
+
+        //then
+        assertThat(itemService.findItems(new ItemSearchCond("item", 10000))).containsExactly(itemA);
+        assertThat(itemService.stats().missCount()).isEqualTo(1);
+        assertThat(itemService.stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void emptyNameIsSameKey() {
+        itemService.findItems(new ItemSearchCond(null, null));
+        itemService.findItems(new ItemSearchCond("", null));
+
+        assertThat(itemService.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void writeInvalidates() {
+        //given
+        Item itemA = itemService.save(new Item("itemA", 10000, 10));
+        assertThat(itemService.findItems(new ItemSearchCond(null, 10000))).containsExactly(itemA);
+
+        //when: 저장, 수정 후에는 새로 조회
+        Item itemB = itemService.save(new Item("itemB", 5000, 10));
+        assertThat(itemService.findItems(new ItemSearchCond(null, 10000))).containsExactly(itemA, itemB);
+
+        itemService.update(itemA.getId(), new ItemUpdateDto("itemA", 30000, 10));
+
+        //then
+        assertThat(itemService.findItems(new ItemSearchCond(null, 10000))).containsExactly(itemB);
+        assertThat(itemService.stats().hitCount()).isZero();
+    }
+}
@@ -0,0 +1,61 @@
+package hello.itemservice.web;
+
+import hello.itemservice.domain.Item;
+import hello.itemservice.repository.ItemRepository;
+import hello.itemservice.repository.memory.ColumnarItemRepository;
+import hello.itemservice.repository.memory.MemoryItemRepository;
+import hello.itemservice.repository.memory.OffHeapItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @AfterEach
+    void afterEach() {
+        //메모리 저장소는 트랜잭션 롤백이 적용되지 않음
+        if (itemRepository instanceof MemoryItemRepository) {
+            ((MemoryItemRepository) itemRepository).clearStore();
+        }
+        if (itemRepository instanceof ColumnarItemRepository) {
+            ((ColumnarItemRepository) itemRepository).clearStore();
+        }
+        if (itemRepository instanceof OffHeapItemRepository) {
+            ((OffHeapItemRepository) itemRepository).clearStore();
+        }
+    }
+
+    @Test
+    void itemsPrefixMatch() throws Exception {
+        //given
+        Item item1 = itemRepository.save(new Item("ctrlA", 10000, 10));
+        Item item2 = itemRepository.save(new Item("xctrlA", 20000, 20));
+
+        //then: 검색 폼의 prefixMatch 가 저장소 조회 조건까지 전달되어야 함
+        mockMvc.perform(get("/items").param("itemName", "ctrlA").param("prefixMatch", "true"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("items", contains(item1)));
+        mockMvc.perform(get("/items").param("itemName", "ctrlA"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("items", containsInAnyOrder(item1, item2)));
+    }
+}